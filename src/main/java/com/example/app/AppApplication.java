@@ -17,11 +17,13 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.math.BigDecimal;
 
 @SpringBootApplication
 @EnableRetry
+@EnableScheduling
 public class AppApplication {
 
 	public static void main(String[] args) {
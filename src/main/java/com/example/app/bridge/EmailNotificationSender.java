@@ -1,14 +1,13 @@
 package com.example.app.bridge;
 
 import com.example.app.model.Account;
+import lombok.extern.slf4j.Slf4j;
 import java.math.BigDecimal;
 
+@Slf4j
 public class EmailNotificationSender implements NotificationSender {
     @Override
     public void send(String message, Account from, Account to, BigDecimal amount) {
-        System.out.println("[EMAIL] " + message);
-        System.out.println("From: " + from.getAccountNumber());
-        System.out.println("To: " + to.getAccountNumber());
-        System.out.println("Amount: " + amount + " LEI");
+        log.info("[EMAIL] {} From: {} To: {} Amount: {} LEI", message, from.getAccountNumber(), to.getAccountNumber(), amount);
     }
 }
\ No newline at end of file
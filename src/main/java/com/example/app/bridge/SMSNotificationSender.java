@@ -1,12 +1,13 @@
 package com.example.app.bridge;
 
 import com.example.app.model.Account;
+import lombok.extern.slf4j.Slf4j;
 import java.math.BigDecimal;
 
+@Slf4j
 public class SMSNotificationSender implements NotificationSender {
     @Override
     public void send(String message, Account from, Account to, BigDecimal amount) {
-        System.out.println("[SMS] " + message);
-        System.out.println("Received " + amount + " LEI from " + from.getAccountNumber());
+        log.info("[SMS] {} Received {} LEI from {}", message, amount, from.getAccountNumber());
     }
 }
\ No newline at end of file
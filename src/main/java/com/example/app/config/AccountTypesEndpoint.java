@@ -0,0 +1,34 @@
+package com.example.app.config;
+
+import com.example.app.service.AccountTypeRegistry;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+// GET /actuator/accounttypes afișează tipurile încărcate; POST le reîncarcă după o modificare în account_types.
+// Disponibil doar pe portul de management (management.server.port, legat la 127.0.0.1), nu și clienților API-ului.
+// Reîncărcarea afectează doar instanța care primește cererea: după o modificare, endpoint-ul trebuie apelat pe fiecare nod.
+@Component
+@Endpoint(id = "accounttypes")
+public class AccountTypesEndpoint {
+
+    private final AccountTypeRegistry accountTypeRegistry;
+
+    public AccountTypesEndpoint(AccountTypeRegistry accountTypeRegistry) {
+        this.accountTypeRegistry = accountTypeRegistry;
+    }
+
+    @ReadOperation
+    public Collection<AccountTypeRegistry.AccountTypeDefinition> accountTypes() {
+        return accountTypeRegistry.getAll();
+    }
+
+    @WriteOperation
+    public Collection<AccountTypeRegistry.AccountTypeDefinition> reload() {
+        accountTypeRegistry.reload();
+        return accountTypeRegistry.getAll();
+    }
+}
@@ -2,17 +2,24 @@ package com.example.app.controller;
 
 import com.example.app.dto.CreateAccountRequestDTO;
 import com.example.app.dto.DbAccountResponseDTO;
+import com.example.app.dto.account.BulkAccountRequestDTO;
+import com.example.app.dto.account.BulkAccountResponseDTO;
 import com.example.app.model.Account; // Pentru conturile in-memory
+import com.example.app.model.AuthenticatedUser;
+import com.example.app.service.AccountProvisioningService;
 import com.example.app.service.AccountService;
+import com.example.app.service.UserDataVersionService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -22,14 +29,20 @@ public class AccountController {
 
     private final AccountService accountService; // Acesta va fi proxy-ul "accountService"
     private final AccountService accountServiceImpl; // Acesta va fi implementarea directă "accountServiceImpl"
+    private final UserDataVersionService userDataVersionService;
+    private final AccountProvisioningService accountProvisioningService;
 
     @Autowired
     public AccountController(
             @Qualifier("accountService") AccountService accountService, // Proxy pentru metodele vechi/demo
-            @Qualifier("accountServiceImpl") AccountService accountServiceImpl // Implementarea directă pentru noile metode DB
+            @Qualifier("accountServiceImpl") AccountService accountServiceImpl, // Implementarea directă pentru noile metode DB
+            UserDataVersionService userDataVersionService,
+            AccountProvisioningService accountProvisioningService
     ) {
         this.accountService = accountService;
         this.accountServiceImpl = accountServiceImpl;
+        this.userDataVersionService = userDataVersionService;
+        this.accountProvisioningService = accountProvisioningService;
     }
 
     // --- ENDPOINT-URI EXISTENTE PENTRU CONTURI IN-MEMORY (DEMO PATTERNS) ---
@@ -74,6 +87,16 @@ public class AccountController {
         return authentication.getName();
     }
 
+    // ETag-ul versiunii curente a datelor utilizatorului; citit înaintea interogărilor, ca un commit
+    // concurent să ducă cel mult la un răspuns complet în plus, niciodată la un 304 greșit
+    private String getCurrentDataETag() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return userDataVersionService.etag(user.getId());
+        }
+        return null;
+    }
+
     @PostMapping("/api/v1/db-accounts")
     public ResponseEntity<DbAccountResponseDTO> createDatabaseAccount(@Valid @RequestBody CreateAccountRequestDTO requestDTO) {
         String username = getCurrentUsername();
@@ -81,16 +104,38 @@ public class AccountController {
         return new ResponseEntity<>(createdAccount, HttpStatus.CREATED);
     }
 
+    // Deschidere în lot (onboarding corporativ): același path primește JSON sau CSV, după Content-Type
+    @PostMapping(value = "/api/v1/db-accounts/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkAccountResponseDTO> createDatabaseAccountsBulk(@Valid @RequestBody BulkAccountRequestDTO requestDTO) {
+        String username = getCurrentUsername();
+        return ResponseEntity.ok(accountProvisioningService.provisionAccounts(username, requestDTO.getAccounts()));
+    }
+
+    @PostMapping(value = "/api/v1/db-accounts/bulk", consumes = "text/csv")
+    public ResponseEntity<BulkAccountResponseDTO> createDatabaseAccountsBulkFromCsv(@RequestBody String csv) {
+        String username = getCurrentUsername();
+        return ResponseEntity.ok(accountProvisioningService.provisionAccountsFromCsv(username, csv));
+    }
+
     @GetMapping("/api/v1/db-accounts")
-    public ResponseEntity<List<DbAccountResponseDTO>> getUserDatabaseAccounts() {
+    public ResponseEntity<List<DbAccountResponseDTO>> getUserDatabaseAccounts(WebRequest webRequest) {
         String username = getCurrentUsername();
+        String etag = getCurrentDataETag();
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null; // 304 Not Modified, fără interogări și fără corp
+        }
         List<DbAccountResponseDTO> accounts = accountServiceImpl.getDbAccountsByUsername(username);
         return ResponseEntity.ok(accounts);
     }
 
     @GetMapping("/api/v1/db-accounts/{accountNumber}")
-    public ResponseEntity<DbAccountResponseDTO> getDatabaseAccountDetails(@PathVariable String accountNumber) {
+    public ResponseEntity<DbAccountResponseDTO> getDatabaseAccountDetails(@PathVariable String accountNumber, WebRequest webRequest) {
         String username = getCurrentUsername();
+        String etag = getCurrentDataETag();
+        // 304 doar pentru conturile utilizatorului; pentru orice alt cont răspunsul vine din verificarea completă (403/404)
+        if (etag != null && accountServiceImpl.isAccountOwnedBy(accountNumber, username) && webRequest.checkNotModified(etag)) {
+            return null;
+        }
         DbAccountResponseDTO accountDetails = accountServiceImpl.getDbAccountDetails(accountNumber, username);
         return ResponseEntity.ok(accountDetails);
     }
@@ -2,38 +2,51 @@ package com.example.app.controller;
 
 import com.example.app.dto.LoginRequest;
 import com.example.app.dto.LoginResponse;
+import com.example.app.dto.RefreshTokenRequest;
 import com.example.app.dto.RegisterRequest;
 import com.example.app.dto.UserDTO;
-import com.example.app.model.User;
 import com.example.app.service.AuthenticationService;
-import com.example.app.util.JwtServiceImpl;
+import com.example.app.util.TokenExtractServiceImpl;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/auth")
 @RequiredArgsConstructor
 public class AuthController {
 
     private final AuthenticationService authenticationService;
-    private final JwtServiceImpl jwtService;
 
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody UserDTO userDTO){
-        authenticationService.signup(userDTO);
-        return ResponseEntity.ok("Account created");
+    public CompletableFuture<ResponseEntity<String>> register(@RequestBody UserDTO userDTO){
+        return authenticationService.signup(userDTO)
+                .thenApply(ignored -> ResponseEntity.ok("Account created"));
     }
 
+    // issueTokens rulează pe firul care a finalizat verificarea (executorul de continuări), nu pe pool-ul BCrypt
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@RequestBody UserDTO userDTO){
-        User authenticatedUser = authenticationService.login(userDTO);
-        String token = jwtService.generateToken(authenticatedUser);
-        LoginResponse loginResponse = new LoginResponse();
-        loginResponse.setToken(token);
-        loginResponse.setExpiresIn(jwtService.getExpirationTime());
-        return ResponseEntity.ok(loginResponse);
+    public CompletableFuture<ResponseEntity<LoginResponse>> login(@RequestBody UserDTO userDTO){
+        return authenticationService.login(userDTO)
+                .thenApply(authenticatedUser -> ResponseEntity.ok(authenticationService.issueTokens(authenticatedUser)));
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(authenticationService.refresh(request.getRefreshToken()));
+    }
+
+    // Sesiunea nu mai poate fi reîmprospătată, iar access token-ul din header (dacă este trimis) este revocat imediat.
+    // Fără header, access token-ul rămâne valid până la expirare (jwt.expiration-time).
+    @PostMapping("/logout")
+    public ResponseEntity<String> logout(@Valid @RequestBody RefreshTokenRequest request,
+                                         @RequestHeader(value = "Authorization", required = false) String authorizationHeader) {
+        String accessToken = authorizationHeader != null ? TokenExtractServiceImpl.getInstance().getToken(authorizationHeader) : null;
+        authenticationService.logout(request.getRefreshToken(), accessToken);
+        return ResponseEntity.ok("Logged out");
     }
 
     @GetMapping("/health-check")
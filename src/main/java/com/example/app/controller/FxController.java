@@ -0,0 +1,41 @@
+package com.example.app.controller;
+
+import com.example.app.dto.fx.FxQuoteRequestDTO;
+import com.example.app.dto.fx.FxQuoteResponseDTO;
+import com.example.app.service.FxQuoteService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/fx")
+public class FxController {
+
+    private final FxQuoteService fxQuoteService;
+
+    @Autowired
+    public FxController(FxQuoteService fxQuoteService) {
+        this.fxQuoteService = fxQuoteService;
+    }
+
+    private String getCurrentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getPrincipal())) {
+            throw new IllegalStateException("Utilizatorul nu este autentificat.");
+        }
+        if (authentication.getPrincipal() instanceof UserDetails) {
+            return ((UserDetails) authentication.getPrincipal()).getUsername();
+        }
+        return authentication.getName();
+    }
+
+    @PostMapping("/quotes")
+    public ResponseEntity<FxQuoteResponseDTO> createQuote(@Valid @RequestBody FxQuoteRequestDTO requestDTO) {
+        FxQuoteResponseDTO response = fxQuoteService.createQuote(getCurrentUsername(), requestDTO);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,9 +1,15 @@
 package com.example.app.controller;
 
-import com.example.app.dto.DbTransactionResponseDTO;
+import com.example.app.dto.TransactionPageDTO;
+import com.example.app.model.AuthenticatedUser;
 import com.example.app.service.AccountService;
+import com.example.app.service.TransactionExportService;
+import com.example.app.service.UserDataVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -11,19 +17,38 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/api/v1/transactions")
 public class TransactionController {
 
     private final AccountService accountServiceImpl; // Folosim implementarea directă
+    private final TransactionExportService transactionExportService;
+    private final UserDataVersionService userDataVersionService;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final long exportTimeout;
 
     @Autowired
-    public TransactionController(@Qualifier("accountServiceImpl") AccountService accountServiceImpl) {
+    public TransactionController(@Qualifier("accountServiceImpl") AccountService accountServiceImpl,
+                                 TransactionExportService transactionExportService,
+                                 UserDataVersionService userDataVersionService,
+                                 @Value("${transactions.page.default-size:50}") int defaultPageSize,
+                                 @Value("${transactions.page.max-size:200}") int maxPageSize,
+                                 @Value("${transactions.export.timeout:600000}") long exportTimeout) {
         this.accountServiceImpl = accountServiceImpl;
+        this.transactionExportService = transactionExportService;
+        this.userDataVersionService = userDataVersionService;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.exportTimeout = exportTimeout;
     }
 
     private String getCurrentUsername() {
@@ -37,17 +62,70 @@ public class TransactionController {
         return authentication.getName();
     }
 
+    // ETag-ul versiunii curente a datelor utilizatorului; citit înaintea interogărilor, ca un commit
+    // concurent să ducă cel mult la un răspuns complet în plus, niciodată la un 304 greșit
+    private String getCurrentDataETag() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return userDataVersionService.etag(user.getId());
+        }
+        return null;
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Parametrul limit trebuie să fie cel puțin 1.");
+        }
+        return Math.min(limit, maxPageSize);
+    }
+
+    // Paginare prin cursor: nextCursor din răspuns se trimite ca parametru cursor pentru pagina următoare
     @GetMapping
-    public ResponseEntity<List<DbTransactionResponseDTO>> getAllUserTransactions() {
+    public ResponseEntity<TransactionPageDTO> getAllUserTransactions(@RequestParam(required = false) String cursor,
+                                                                     @RequestParam(required = false) Integer limit,
+                                                                     WebRequest webRequest) {
         String username = getCurrentUsername();
-        List<DbTransactionResponseDTO> transactions = accountServiceImpl.getAllDbTransactionsByUsername(username);
+        String etag = getCurrentDataETag();
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null; // 304 Not Modified, fără interogări și fără corp
+        }
+        TransactionPageDTO transactions = accountServiceImpl.getDbTransactionsPageByUsername(username, cursor, resolvePageSize(limit));
         return ResponseEntity.ok(transactions);
     }
 
+    // Istoricul complet (sau intervalul from..to, zile incluse), scris în răspuns pe măsură ce este citit.
+    // Corpul este scris asincron; doar această cerere primește timeout-ul lung, restul păstrează valoarea implicită.
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUserTransactions(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            WebRequest webRequest) {
+        String username = getCurrentUsername();
+        TransactionExportService.ExportFormat exportFormat = TransactionExportService.ExportFormat.from(format);
+        StreamingResponseBody body = transactionExportService.export(username, exportFormat, from, to);
+        WebAsyncUtils.getAsyncManager(webRequest).getAsyncWebRequest().setTimeout(exportTimeout);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
     @GetMapping("/{accountNumber}")
-    public ResponseEntity<List<DbTransactionResponseDTO>> getTransactionsForUserAccount(@PathVariable String accountNumber) {
+    public ResponseEntity<TransactionPageDTO> getTransactionsForUserAccount(@PathVariable String accountNumber,
+                                                                            @RequestParam(required = false) String cursor,
+                                                                            @RequestParam(required = false) Integer limit,
+                                                                            WebRequest webRequest) {
         String username = getCurrentUsername();
-        List<DbTransactionResponseDTO> transactions = accountServiceImpl.getDbTransactionsByAccountNumberForUser(accountNumber, username);
+        String etag = getCurrentDataETag();
+        // Ca la detaliile contului: 304 doar după ce contul este găsit în lista utilizatorului
+        if (etag != null && accountServiceImpl.isAccountOwnedBy(accountNumber, username) && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        TransactionPageDTO transactions = accountServiceImpl.getDbTransactionsPageByAccountNumberForUser(accountNumber, username, cursor, resolvePageSize(limit));
         return ResponseEntity.ok(transactions);
     }
 }
\ No newline at end of file
@@ -1,9 +1,12 @@
 package com.example.app.controller;
 
+import com.example.app.dto.transfer.BatchTransferRequestDTO;
+import com.example.app.dto.transfer.BatchTransferResponseDTO;
 import com.example.app.dto.transfer.DomesticBankTransferRequestDTO;
 import com.example.app.dto.transfer.IntrabankTransferRequestDTO;
 import com.example.app.dto.transfer.OwnAccountTransferRequestDTO;
 import com.example.app.dto.transfer.TransferResponseDTO;
+import com.example.app.service.IdempotencyService;
 import com.example.app.service.TransferService;
 import com.example.app.util.UserExtractServiceImpl; // Pentru a obține utilizatorul curent
 import jakarta.validation.Valid;
@@ -18,13 +21,18 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/v1/transfers") // Punct de bază pentru toate transferurile
 public class TransferController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key"; // Opțional; cererile repetate cu aceeași cheie primesc răspunsul salvat
+
     private final TransferService transferService;
     private final UserExtractServiceImpl userExtractService; // Presupunând că ai acest serviciu
+    private final IdempotencyService idempotencyService;
 
     @Autowired
-    public TransferController(TransferService transferService, UserExtractServiceImpl userExtractService) {
+    public TransferController(TransferService transferService, UserExtractServiceImpl userExtractService,
+                              IdempotencyService idempotencyService) {
         this.transferService = transferService;
         this.userExtractService = userExtractService;
+        this.idempotencyService = idempotencyService;
     }
 
     private String getCurrentUsername() {
@@ -41,25 +49,41 @@ public class TransferController {
 
     @PostMapping("/own-account")
     public ResponseEntity<TransferResponseDTO> transferBetweenOwnAccounts(
-            @Valid @RequestBody OwnAccountTransferRequestDTO requestDTO) {
+            @Valid @RequestBody OwnAccountTransferRequestDTO requestDTO,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         String username = getCurrentUsername();
-        TransferResponseDTO response = transferService.transferBetweenOwnAccounts(username, requestDTO);
+        TransferResponseDTO response = idempotencyService.execute(username, idempotencyKey, "own-account", requestDTO,
+                TransferResponseDTO.class, () -> transferService.transferBetweenOwnAccounts(username, requestDTO));
         return ResponseEntity.ok(response);
     }
 
     @PostMapping("/intrabank")
     public ResponseEntity<TransferResponseDTO> transferToIntrabankAccount(
-            @Valid @RequestBody IntrabankTransferRequestDTO requestDTO) {
+            @Valid @RequestBody IntrabankTransferRequestDTO requestDTO,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         String username = getCurrentUsername();
-        TransferResponseDTO response = transferService.transferToIntrabankAccount(username, requestDTO);
+        TransferResponseDTO response = idempotencyService.execute(username, idempotencyKey, "intrabank", requestDTO,
+                TransferResponseDTO.class, () -> transferService.transferToIntrabankAccount(username, requestDTO));
         return ResponseEntity.ok(response);
     }
 
     @PostMapping("/domestic-bank")
     public ResponseEntity<TransferResponseDTO> transferToDomesticBankAccount(
-            @Valid @RequestBody DomesticBankTransferRequestDTO requestDTO) {
+            @Valid @RequestBody DomesticBankTransferRequestDTO requestDTO,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        String username = getCurrentUsername();
+        TransferResponseDTO response = idempotencyService.execute(username, idempotencyKey, "domestic-bank", requestDTO,
+                TransferResponseDTO.class, () -> transferService.transferToDomesticBankAccount(username, requestDTO));
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<BatchTransferResponseDTO> transferBatch(
+            @Valid @RequestBody BatchTransferRequestDTO requestDTO,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         String username = getCurrentUsername();
-        TransferResponseDTO response = transferService.transferToDomesticBankAccount(username, requestDTO);
+        BatchTransferResponseDTO response = idempotencyService.execute(username, idempotencyKey, "batch", requestDTO,
+                BatchTransferResponseDTO.class, () -> transferService.transferBatch(username, requestDTO));
         return ResponseEntity.ok(response);
     }
 }
\ No newline at end of file
@@ -6,4 +6,6 @@ import lombok.Data;
 public class LoginResponse {
    private String token;
    private long expiresIn;
-}
\ No newline at end of file
+   private String refreshToken;
+   private long refreshExpiresIn;
+}
@@ -0,0 +1,10 @@
+package com.example.app.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class RefreshTokenRequest {
+    @NotBlank(message = "Refresh token-ul este obligatoriu")
+    private String refreshToken;
+}
@@ -0,0 +1,22 @@
+package com.example.app.dto;
+
+import java.util.List;
+
+public class TransactionPageDTO {
+    private List<DbTransactionResponseDTO> items;
+    private String nextCursor; // null pe ultima pagină
+
+    public TransactionPageDTO() {
+    }
+
+    public TransactionPageDTO(List<DbTransactionResponseDTO> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<DbTransactionResponseDTO> getItems() { return items; }
+    public void setItems(List<DbTransactionResponseDTO> items) { this.items = items; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
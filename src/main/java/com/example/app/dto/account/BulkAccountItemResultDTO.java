@@ -0,0 +1,34 @@
+package com.example.app.dto.account;
+
+import com.example.app.dto.DbAccountResponseDTO;
+
+public class BulkAccountItemResultDTO {
+
+    public static final String STATUS_SUCCESS = "SUCCESS";
+    public static final String STATUS_FAILED = "FAILED";
+
+    private int index; // Poziția rândului în lotul trimis (fără antetul CSV)
+    private String status;
+    private String message;
+    private DbAccountResponseDTO account; // Doar pentru rândurile reușite
+
+    public BulkAccountItemResultDTO() {
+    }
+
+    public BulkAccountItemResultDTO(int index, String status, String message, DbAccountResponseDTO account) {
+        this.index = index;
+        this.status = status;
+        this.message = message;
+        this.account = account;
+    }
+
+    // Getters and Setters
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+    public DbAccountResponseDTO getAccount() { return account; }
+    public void setAccount(DbAccountResponseDTO account) { this.account = account; }
+}
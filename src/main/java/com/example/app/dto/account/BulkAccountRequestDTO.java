@@ -0,0 +1,17 @@
+package com.example.app.dto.account;
+
+import com.example.app.dto.CreateAccountRequestDTO;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class BulkAccountRequestDTO {
+
+    // Rândurile nu sunt validate aici: fiecare rând invalid primește propriul rezultat FAILED
+    @NotEmpty(message = "Lotul trebuie să conțină cel puțin un cont")
+    private List<CreateAccountRequestDTO> accounts;
+
+    // Getters and Setters
+    public List<CreateAccountRequestDTO> getAccounts() { return accounts; }
+    public void setAccounts(List<CreateAccountRequestDTO> accounts) { this.accounts = accounts; }
+}
@@ -0,0 +1,30 @@
+package com.example.app.dto.account;
+
+import java.util.List;
+
+public class BulkAccountResponseDTO {
+    private String message;
+    private int succeeded;
+    private int failed;
+    private List<BulkAccountItemResultDTO> results;
+
+    public BulkAccountResponseDTO() {
+    }
+
+    public BulkAccountResponseDTO(String message, int succeeded, int failed, List<BulkAccountItemResultDTO> results) {
+        this.message = message;
+        this.succeeded = succeeded;
+        this.failed = failed;
+        this.results = results;
+    }
+
+    // Getters and Setters
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+    public int getSucceeded() { return succeeded; }
+    public void setSucceeded(int succeeded) { this.succeeded = succeeded; }
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+    public List<BulkAccountItemResultDTO> getResults() { return results; }
+    public void setResults(List<BulkAccountItemResultDTO> results) { this.results = results; }
+}
@@ -0,0 +1,33 @@
+package com.example.app.dto.fx;
+
+import com.example.app.dto.transfer.TransferType;
+import jakarta.validation.constraints.*;
+import java.math.BigDecimal;
+
+public class FxQuoteRequestDTO {
+
+    @NotNull(message = "Tipul transferului este obligatoriu")
+    private TransferType transferType; // INTRABANK sau DOMESTIC_BANK
+
+    @NotNull(message = "Suma este obligatorie")
+    @DecimalMin(value = "0.01", message = "Suma minimă pentru transfer este 0.01")
+    private BigDecimal amount;
+
+    @NotBlank(message = "Moneda este obligatorie")
+    @Size(min = 3, max = 3, message = "Moneda trebuie să aibă 3 caractere")
+    private String currency; // Moneda transferului
+
+    @NotBlank(message = "Moneda contului sursă este obligatorie")
+    @Size(min = 3, max = 3, message = "Moneda trebuie să aibă 3 caractere")
+    private String sourceCurrency; // Moneda contului din care se va debita
+
+    // Getters and Setters
+    public TransferType getTransferType() { return transferType; }
+    public void setTransferType(TransferType transferType) { this.transferType = transferType; }
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+    public String getSourceCurrency() { return sourceCurrency; }
+    public void setSourceCurrency(String sourceCurrency) { this.sourceCurrency = sourceCurrency; }
+}
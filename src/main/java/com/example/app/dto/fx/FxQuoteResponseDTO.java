@@ -0,0 +1,62 @@
+package com.example.app.dto.fx;
+
+import com.example.app.dto.transfer.TransferType;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class FxQuoteResponseDTO {
+    private String quoteId; // Se trimite ca quoteId în cererea de transfer
+    private TransferType transferType;
+    private BigDecimal amount;
+    private String currency;
+    private String sourceCurrency;
+    private BigDecimal rate; // 1 currency = rate sourceCurrency
+    private BigDecimal fee; // În moneda transferului
+    private BigDecimal totalAmount; // amount + fee, în moneda transferului
+    private BigDecimal debitAmount; // Suma care va fi debitată, în moneda contului sursă
+    private long rateSnapshotVersion;
+    private LocalDateTime expiresAt;
+
+    public FxQuoteResponseDTO() {
+    }
+
+    public FxQuoteResponseDTO(String quoteId, TransferType transferType, BigDecimal amount, String currency,
+                              String sourceCurrency, BigDecimal rate, BigDecimal fee, BigDecimal totalAmount,
+                              BigDecimal debitAmount, long rateSnapshotVersion, LocalDateTime expiresAt) {
+        this.quoteId = quoteId;
+        this.transferType = transferType;
+        this.amount = amount;
+        this.currency = currency;
+        this.sourceCurrency = sourceCurrency;
+        this.rate = rate;
+        this.fee = fee;
+        this.totalAmount = totalAmount;
+        this.debitAmount = debitAmount;
+        this.rateSnapshotVersion = rateSnapshotVersion;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters and Setters
+    public String getQuoteId() { return quoteId; }
+    public void setQuoteId(String quoteId) { this.quoteId = quoteId; }
+    public TransferType getTransferType() { return transferType; }
+    public void setTransferType(TransferType transferType) { this.transferType = transferType; }
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+    public String getSourceCurrency() { return sourceCurrency; }
+    public void setSourceCurrency(String sourceCurrency) { this.sourceCurrency = sourceCurrency; }
+    public BigDecimal getRate() { return rate; }
+    public void setRate(BigDecimal rate) { this.rate = rate; }
+    public BigDecimal getFee() { return fee; }
+    public void setFee(BigDecimal fee) { this.fee = fee; }
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+    public BigDecimal getDebitAmount() { return debitAmount; }
+    public void setDebitAmount(BigDecimal debitAmount) { this.debitAmount = debitAmount; }
+    public long getRateSnapshotVersion() { return rateSnapshotVersion; }
+    public void setRateSnapshotVersion(long rateSnapshotVersion) { this.rateSnapshotVersion = rateSnapshotVersion; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -0,0 +1,30 @@
+package com.example.app.dto.transfer;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+// O instrucțiune din lot: tipul transferului + DTO-ul existent corespunzător tipului (celelalte rămân null)
+public class BatchTransferItemDTO {
+
+    @NotNull(message = "Tipul transferului este obligatoriu")
+    private TransferType type;
+
+    @Valid
+    private OwnAccountTransferRequestDTO ownAccount;
+
+    @Valid
+    private IntrabankTransferRequestDTO intrabank;
+
+    @Valid
+    private DomesticBankTransferRequestDTO domesticBank;
+
+    // Getters and Setters
+    public TransferType getType() { return type; }
+    public void setType(TransferType type) { this.type = type; }
+    public OwnAccountTransferRequestDTO getOwnAccount() { return ownAccount; }
+    public void setOwnAccount(OwnAccountTransferRequestDTO ownAccount) { this.ownAccount = ownAccount; }
+    public IntrabankTransferRequestDTO getIntrabank() { return intrabank; }
+    public void setIntrabank(IntrabankTransferRequestDTO intrabank) { this.intrabank = intrabank; }
+    public DomesticBankTransferRequestDTO getDomesticBank() { return domesticBank; }
+    public void setDomesticBank(DomesticBankTransferRequestDTO domesticBank) { this.domesticBank = domesticBank; }
+}
@@ -0,0 +1,32 @@
+package com.example.app.dto.transfer;
+
+public class BatchTransferItemResultDTO {
+
+    public static final String STATUS_SUCCESS = "SUCCESS";
+    public static final String STATUS_FAILED = "FAILED";
+
+    private int index; // Poziția instrucțiunii în lotul trimis
+    private TransferType type;
+    private String status;
+    private String message;
+
+    public BatchTransferItemResultDTO() {
+    }
+
+    public BatchTransferItemResultDTO(int index, TransferType type, String status, String message) {
+        this.index = index;
+        this.type = type;
+        this.status = status;
+        this.message = message;
+    }
+
+    // Getters and Setters
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+    public TransferType getType() { return type; }
+    public void setType(TransferType type) { this.type = type; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -0,0 +1,17 @@
+package com.example.app.dto.transfer;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class BatchTransferRequestDTO {
+
+    @NotEmpty(message = "Lotul trebuie să conțină cel puțin un transfer")
+    @Valid
+    private List<BatchTransferItemDTO> transfers;
+
+    // Getters and Setters
+    public List<BatchTransferItemDTO> getTransfers() { return transfers; }
+    public void setTransfers(List<BatchTransferItemDTO> transfers) { this.transfers = transfers; }
+}
@@ -30,6 +30,8 @@ public class DomesticBankTransferRequestDTO {
     @NotBlank(message = "Descrierea/detaliile plății sunt obligatorii")
     private String description;
 
+    private String quoteId; // Opțional: cotația obținută din POST /api/v1/fx/quotes
+
     // Getters and Setters
     public Long getFromAccountId() { return fromAccountId; }
     public void setFromAccountId(Long fromAccountId) { this.fromAccountId = fromAccountId; }
@@ -45,4 +47,6 @@ public class DomesticBankTransferRequestDTO {
     public void setCurrency(String currency) { this.currency = currency; }
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
-}
\ No newline at end of file
+    public String getQuoteId() { return quoteId; }
+    public void setQuoteId(String quoteId) { this.quoteId = quoteId; }
+}
@@ -6,6 +6,9 @@ public class TransferResponseDTO {
     private String message;
     private DbTransactionResponseDTO transactionDetails; // Opțional, detaliile tranzacției create
 
+    public TransferResponseDTO() {
+    }
+
     public TransferResponseDTO(String message) {
         this.message = message;
     }
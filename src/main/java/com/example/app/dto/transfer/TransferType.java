@@ -0,0 +1,7 @@
+package com.example.app.dto.transfer;
+
+public enum TransferType {
+    OWN_ACCOUNT,
+    INTRABANK,
+    DOMESTIC_BANK
+}
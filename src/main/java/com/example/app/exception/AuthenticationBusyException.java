@@ -0,0 +1,7 @@
+package com.example.app.exception;
+
+public class AuthenticationBusyException extends RuntimeException {
+    public AuthenticationBusyException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.app.exception;
 
 import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -14,6 +15,7 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+@Slf4j
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
@@ -87,8 +89,7 @@ public class GlobalExceptionHandler {
     // Handler general pentru alte excepții necapturate specific
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Object> handleGenericException(Exception ex, WebRequest request) {
-        // Logați excepția aici pentru debugging
-        ex.printStackTrace(); // Important pentru a vedea stack trace-ul în consolă
+        log.error("Unhandled exception for {}", request.getDescription(false), ex);
         return buildErrorResponse(ex, "An unexpected error occurred. Please try again later.", HttpStatus.INTERNAL_SERVER_ERROR, request);
     }
 
@@ -107,6 +108,26 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(ex, ex.getMessage(), HttpStatus.FORBIDDEN, request);
     }
 
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public ResponseEntity<Object> handleIdempotencyKeyInProgressException(IdempotencyKeyInProgressException ex, WebRequest request) {
+        return buildErrorResponse(ex, ex.getMessage(), HttpStatus.CONFLICT, request);
+    }
+
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<Object> handleIdempotencyKeyMismatchException(IdempotencyKeyMismatchException ex, WebRequest request) {
+        return buildErrorResponse(ex, ex.getMessage(), HttpStatus.UNPROCESSABLE_ENTITY, request);
+    }
+
+    @ExceptionHandler(AuthenticationBusyException.class)
+    public ResponseEntity<Object> handleAuthenticationBusyException(AuthenticationBusyException ex, WebRequest request) {
+        return buildErrorResponse(ex, ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE, request);
+    }
+
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<Object> handleInvalidRefreshTokenException(InvalidRefreshTokenException ex, WebRequest request) {
+        return buildErrorResponse(ex, ex.getMessage(), HttpStatus.UNAUTHORIZED, request);
+    }
+
     private ResponseEntity<Object> buildErrorResponse(Exception ex, HttpStatus status, WebRequest request) {
         return buildErrorResponse(ex, ex.getMessage(), status, request);
     }
@@ -2,10 +2,9 @@ package com.example.app.factory;
 
 import com.example.app.interfaces.AccountAbstractFactory;
 import com.example.app.model.Account;
-import com.example.app.model.AccountType;
 import com.example.app.model.StandardCheckingAccount;
 import com.example.app.model.StandardSavingsAccount;
-import com.example.app.repository.AccountTypeRepository; // Import repository
+import com.example.app.service.AccountTypeRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 // No longer injects overdraft limit via @Value
@@ -13,24 +12,24 @@ import org.springframework.stereotype.Component;
 @Component("standardAccountFactory")
 public class StandardAccountFactory implements AccountAbstractFactory {
 
-    private final AccountTypeRepository accountTypeRepository;
+    private final AccountTypeRegistry accountTypeRegistry;
 
     @Autowired
-    public StandardAccountFactory(AccountTypeRepository accountTypeRepository) {
-        this.accountTypeRepository = accountTypeRepository;
+    public StandardAccountFactory(AccountTypeRegistry accountTypeRegistry) {
+        this.accountTypeRegistry = accountTypeRegistry;
     }
 
     @Override
     public Account createCheckingAccount(String accountNumber) {
-        AccountType type = accountTypeRepository.findByTypeName("STANDARD_CHECKING")
+        AccountTypeRegistry.AccountTypeDefinition type = accountTypeRegistry.findByName("STANDARD_CHECKING")
                 .orElseThrow(() -> new RuntimeException("STANDARD_CHECKING account type not found in database"));
-        return new StandardCheckingAccount(accountNumber, type.getOverdraftLimit());
+        return new StandardCheckingAccount(accountNumber, type.overdraftLimit());
     }
 
     @Override
     public Account createSavingsAccount(String accountNumber) {
-        AccountType type = accountTypeRepository.findByTypeName("STANDARD_SAVINGS")
+        AccountTypeRegistry.AccountTypeDefinition type = accountTypeRegistry.findByName("STANDARD_SAVINGS")
                 .orElseThrow(() -> new RuntimeException("STANDARD_SAVINGS account type not found in database"));
-        return new StandardSavingsAccount(accountNumber, type.getInterestRate());
+        return new StandardSavingsAccount(accountNumber, type.interestRate());
     }
 }
\ No newline at end of file
@@ -1,22 +1,30 @@
 package com.example.app.model;
 
 import jakarta.persistence.*;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
-import lombok.AllArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.DynamicUpdate;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.List;
 
+// Fără colecțiile inverse (tranzacțiile se citesc prin DbTransactionRepository), ca flush-ul și toString
+// să nu atingă colecții lazy. Modificările câmpurilor sunt urmărite prin bytecode enhancement (vezi pom.xml),
+// iar @DynamicUpdate face ca UPDATE-ul să scrie doar coloanele marcate ca modificate.
 @Entity
+@DynamicUpdate
 @Table(name = "db_accounts")
-@Data
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
-@AllArgsConstructor
 public class DbAccount {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "db_accounts_id_seq")
+    @SequenceGenerator(name = "db_accounts_id_seq", allocationSize = 50, sequenceName = "db_accounts_id_seq") // Secvența coloanei BIGSERIAL, cu pas 50 pentru insert-uri în lot
     private Long id;
 
     @Column(name = "account_number", unique = true, nullable = false)
@@ -24,10 +32,13 @@ public class DbAccount {
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
     private User user;
 
-    @ManyToOne(fetch = FetchType.EAGER) // Eager fetch type as it's often needed
+    // LAZY: datele tipului vin din AccountTypeRegistry după getAccountType().getId(), care nu inițializează proxy-ul
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_type_id", nullable = false)
+    @ToString.Exclude
     private AccountType accountType;
 
     @Column(precision = 15, scale = 2, nullable = false)
@@ -46,9 +57,17 @@ public class DbAccount {
     @Temporal(TemporalType.TIMESTAMP)
     private LocalDateTime openedDate = LocalDateTime.now();
 
-    @OneToMany(mappedBy = "fromAccount", cascade = CascadeType.ALL, orphanRemoval = true)
-    private List<DbTransaction> outgoingTransactions;
+    // Egalitate după ID, compatibilă cu proxy-urile lazy; hashCode constant, stabil și după persist
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        DbAccount other = (DbAccount) o;
+        return id != null && id.equals(other.getId());
+    }
 
-    @OneToMany(mappedBy = "toAccount", cascade = CascadeType.ALL, orphanRemoval = true)
-    private List<DbTransaction> incomingTransactions;
+    @Override
+    public int hashCode() {
+        return Hibernate.getClass(this).hashCode();
+    }
 }
\ No newline at end of file
@@ -1,29 +1,35 @@
 package com.example.app.model;
 
 import jakarta.persistence.*;
-import lombok.Data; // Continuăm să folosim Lombok dacă așa era
+import lombok.Getter;
 import lombok.NoArgsConstructor;
-import lombok.AllArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "db_transactions") // Numele tabelului tău existent
-@Data // Generează getters, setters, toString, equals, hashCode
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
-@AllArgsConstructor
 public class DbTransaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // Sau GenerationType.SEQUENCE dacă folosești secvențe
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "db_transactions_id_seq")
+    @SequenceGenerator(name = "db_transactions_id_seq", allocationSize = 50, sequenceName = "db_transactions_id_seq")
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "from_account_id") // Poate fi null pentru depuneri
+    @ToString.Exclude
     private DbAccount fromAccount;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "to_account_id")   // Poate fi null pentru retrageri
+    @ToString.Exclude
     private DbAccount toAccount;
 
     @Column(nullable = false, precision = 15, scale = 2)
@@ -41,4 +47,20 @@ public class DbTransaction {
 
     @Column(name = "transaction_type", length = 50)
     private String transactionType; // Ex: "OWN_ACCOUNT_TRANSFER", "INTRABANK_TRANSFER", "DEPOSIT", etc.
+
+    @Column(name = "rate_snapshot_version")
+    private Long rateSnapshotVersion; // Versiunea ratelor de schimb folosite (exchange_rate_snapshots)
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        DbTransaction other = (DbTransaction) o;
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Hibernate.getClass(this).hashCode();
+    }
 }
\ No newline at end of file
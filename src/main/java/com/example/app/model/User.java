@@ -2,14 +2,21 @@ package com.example.app.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import java.util.Collection;
 import java.util.List; // Make sure to import java.util.List
 
+// Conturile utilizatorului se citesc prin DbAccountRepository; entitatea nu mai ține colecția inversă.
+// UPDATE-ul scrie doar coloanele modificate (ex: doar parola la rehash), ca în DbAccount.
 @Entity
+@DynamicUpdate
 @Table(name = "users", schema = "public")
-@Data
+@Getter
+@Setter
+@ToString
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,13 +24,14 @@ public class User implements UserDetails {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_id_seq")
-    @SequenceGenerator(name = "user_id_seq", allocationSize = 1, sequenceName = "user_id_seq")
+    @SequenceGenerator(name = "user_id_seq", allocationSize = 50, sequenceName = "user_id_seq")
     private Long id;
 
     @Column(unique = true, nullable = false)
     private String username;
 
     @Column(nullable = false)
+    @ToString.Exclude
     private String password;
 
     @Column(unique = true, nullable = false)
@@ -31,10 +39,6 @@ public class User implements UserDetails {
 
     private String phoneNumber;
 
-    // Add this relationship
-    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
-    private List<DbAccount> dbAccounts; // Changed from Account to DbAccount
-
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(); // Consider implementing roles/authorities if needed
@@ -59,4 +63,17 @@ public class User implements UserDetails {
     public boolean isEnabled() {
         return true;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        User other = (User) o;
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Hibernate.getClass(this).hashCode();
+    }
 }
\ No newline at end of file
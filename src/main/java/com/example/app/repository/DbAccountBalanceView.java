@@ -0,0 +1,15 @@
+package com.example.app.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Proiecție minimă a unui cont, folosită pe calea de transfer în locul entității {@code DbAccount}
+ * (fără hidratarea relațiilor și fără dirty checking).
+ */
+public interface DbAccountBalanceView {
+    Long getId();
+    String getAccountNumber();
+    String getCurrency();
+    BigDecimal getBalance();
+    Long getUserId();
+}
@@ -3,9 +3,12 @@ package com.example.app.repository;
 import com.example.app.model.DbAccount;
 import com.example.app.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,8 +16,35 @@ import java.util.Optional;
 public interface DbAccountRepository extends JpaRepository<DbAccount, Long> {
     Optional<DbAccount> findByAccountNumber(String accountNumber);
     List<DbAccount> findByUser(User user);
-    boolean existsByAccountNumber(String accountNumber);
 
     @Query("SELECT dba FROM DbAccount dba JOIN dba.user u WHERE u.username = :username")
     List<DbAccount> findByUserUsername(@Param("username") String username);
+
+    @Query("SELECT dba.id FROM DbAccount dba WHERE dba.user.id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT dba.id AS id, dba.accountNumber AS accountNumber, dba.currency AS currency, " +
+            "dba.balance AS balance, dba.user.id AS userId FROM DbAccount dba WHERE dba.id IN :ids ORDER BY dba.id")
+    List<DbAccountBalanceView> findBalanceViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT dba.id AS id, dba.accountNumber AS accountNumber, dba.currency AS currency, " +
+            "dba.balance AS balance, dba.user.id AS userId FROM DbAccount dba WHERE dba.accountNumber = :accountNumber")
+    Optional<DbAccountBalanceView> findBalanceViewByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    // SELECT ... FOR UPDATE; rândurile sunt blocate în ordinea ID-urilor pentru a evita deadlock-urile.
+    // Se blochează doar conturile utilizatorului dat, ca o cerere să nu poată ține blocate conturile altor clienți.
+    @Query(value = "SELECT id AS \"id\", account_number AS \"accountNumber\", currency AS \"currency\", " +
+            "balance AS \"balance\", user_id AS \"userId\" FROM db_accounts WHERE id IN (:ids) AND user_id = :userId " +
+            "ORDER BY id FOR UPDATE",
+            nativeQuery = true)
+    List<DbAccountBalanceView> findBalanceViewsByIdInForUpdate(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    // Debit atomic: nu modifică nimic (întoarce 0) dacă soldul nu acoperă suma
+    @Modifying
+    @Query("UPDATE DbAccount dba SET dba.balance = dba.balance - :amount WHERE dba.id = :id AND dba.balance >= :amount")
+    int debitIfSufficientFunds(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query("UPDATE DbAccount dba SET dba.balance = dba.balance + :amount WHERE dba.id = :id")
+    int credit(@Param("id") Long id, @Param("amount") BigDecimal amount);
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.example.app.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Rând din istoricul tranzacțiilor, citit printr-o interogare nativă; numerele de cont sunt null pentru partea externă.
+ */
+public interface DbTransactionHistoryView {
+    Long getId();
+    String getFromAccountNumber();
+    String getToAccountNumber();
+    BigDecimal getAmount();
+    String getCurrency();
+    String getDescription();
+    LocalDateTime getTimestamp();
+    String getTransactionType();
+}
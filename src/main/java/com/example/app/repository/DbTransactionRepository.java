@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,8 +16,35 @@ public interface DbTransactionRepository extends JpaRepository<DbTransaction, Lo
     List<DbTransaction> findByToAccount(DbAccount toAccount);
     List<DbTransaction> findByFromAccountOrToAccount(DbAccount fromAccount, DbAccount toAccount);
 
-    @Query("SELECT t FROM DbTransaction t WHERE t.fromAccount.accountNumber = :accountNumber OR t.toAccount.accountNumber = :accountNumber ORDER BY t.timestamp DESC")
-    List<DbTransaction> findAllByAccountNumber(@Param("accountNumber") String accountNumber);
+    // Coloanele comune interogărilor native de istoric (proiecția DbTransactionHistoryView)
+    String HISTORY_SELECT = "SELECT h.id AS \"id\", fa.account_number AS \"fromAccountNumber\", ta.account_number AS \"toAccountNumber\", " +
+            "h.amount AS \"amount\", h.currency AS \"currency\", h.description AS \"description\", " +
+            "h.timestamp AS \"timestamp\", h.transaction_type AS \"transactionType\" FROM (";
+    String HISTORY_BRANCH_COLUMNS = "SELECT t.id, t.from_account_id, t.to_account_id, t.amount, t.currency, t.description, t.timestamp, t.transaction_type ";
+    String HISTORY_JOIN_ACCOUNTS = ") h " +
+            "LEFT JOIN db_accounts fa ON fa.id = h.from_account_id " +
+            "LEFT JOIN db_accounts ta ON ta.id = h.to_account_id " +
+            "ORDER BY h.timestamp DESC, h.id DESC LIMIT :limit";
+
+    // Paginare keyset pentru un cont: o ramură pe from_account_id și una pe to_account_id, fiecare parcurgând în ordine
+    // indexul (cont, timestamp DESC, id DESC) din changeset-ul 013 și oprindu-se după :limit rânduri, deci costul unei
+    // pagini nu depinde de lungimea istoricului. Condiția simplă t.timestamp <= :timestamp permite eliminarea
+    // partițiilor lunare mai noi decât cursorul (014).
+    @Query(value = HISTORY_SELECT +
+            "(" + HISTORY_BRANCH_COLUMNS +
+            "FROM db_transactions t WHERE t.from_account_id = :accountId AND t.timestamp <= :timestamp AND (t.timestamp, t.id) < (:timestamp, :id) " +
+            "ORDER BY t.timestamp DESC, t.id DESC LIMIT :limit) " +
+            "UNION ALL " +
+            "(" + HISTORY_BRANCH_COLUMNS +
+            "FROM db_transactions t WHERE t.to_account_id = :accountId AND t.timestamp <= :timestamp AND (t.timestamp, t.id) < (:timestamp, :id) " +
+            "AND t.from_account_id IS DISTINCT FROM :accountId " +
+            "ORDER BY t.timestamp DESC, t.id DESC LIMIT :limit)" +
+            HISTORY_JOIN_ACCOUNTS,
+            nativeQuery = true)
+    List<DbTransactionHistoryView> findPageByAccountId(@Param("accountId") Long accountId,
+                                                       @Param("timestamp") LocalDateTime timestamp,
+                                                       @Param("id") Long id,
+                                                       @Param("limit") int limit);
 
     @Query("SELECT t FROM DbTransaction t JOIN t.fromAccount da JOIN da.user u WHERE u.username = :username ORDER BY t.timestamp DESC")
     List<DbTransaction> findAllTransactionsByUsernameFrom(@Param("username") String username);
@@ -23,7 +52,26 @@ public interface DbTransactionRepository extends JpaRepository<DbTransaction, Lo
     @Query("SELECT t FROM DbTransaction t JOIN t.toAccount da JOIN da.user u WHERE u.username = :username ORDER BY t.timestamp DESC")
     List<DbTransaction> findAllTransactionsByUsernameTo(@Param("username") String username);
 
-    // More comprehensive query for all transactions related to a user's accounts
-    @Query("SELECT t FROM DbTransaction t WHERE t.fromAccount.user.username = :username OR t.toAccount.user.username = :username ORDER BY t.timestamp DESC")
-    List<DbTransaction> findAllTransactionsByUsername(@Param("username") String username);
+    // Istoricul tuturor conturilor unui utilizator: pentru fiecare cont, un subquery LATERAL cu câte o ramură
+    // pentru ieșiri și intrări, fiecare citită în ordine din indexul (cont, timestamp DESC, id DESC) și limitată
+    // separat; rezultatele sunt apoi interclasate și limitate din nou. O pagină citește cel mult
+    // 2 * conturi * :limit rânduri, indiferent de lungimea istoricului.
+    // Transferurile între conturile proprii apar doar în ramura de ieșiri a contului sursă.
+    @Query(value = HISTORY_SELECT +
+            "SELECT b.* FROM db_accounts a CROSS JOIN LATERAL (" +
+            "(" + HISTORY_BRANCH_COLUMNS +
+            "FROM db_transactions t WHERE t.from_account_id = a.id AND t.timestamp <= :timestamp AND (t.timestamp, t.id) < (:timestamp, :id) " +
+            "ORDER BY t.timestamp DESC, t.id DESC LIMIT :limit) " +
+            "UNION ALL " +
+            "(" + HISTORY_BRANCH_COLUMNS +
+            "FROM db_transactions t WHERE t.to_account_id = a.id AND t.timestamp <= :timestamp AND (t.timestamp, t.id) < (:timestamp, :id) " +
+            "AND (t.from_account_id IS NULL OR t.from_account_id NOT IN (:accountIds)) " +
+            "ORDER BY t.timestamp DESC, t.id DESC LIMIT :limit)" +
+            ") b WHERE a.id IN (:accountIds)" +
+            HISTORY_JOIN_ACCOUNTS,
+            nativeQuery = true)
+    List<DbTransactionHistoryView> findPageByAccountIds(@Param("accountIds") Collection<Long> accountIds,
+                                                        @Param("timestamp") LocalDateTime timestamp,
+                                                        @Param("id") Long id,
+                                                        @Param("limit") int limit);
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.example.app.repository;
+
+// Proiecție minimă a utilizatorului, folosită pentru principalul din SecurityContext
+public interface UserPrincipalView {
+    Long getId();
+    String getUsername();
+}
@@ -4,6 +4,7 @@ package com.example.app.repository;
 import com.example.app.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
@@ -12,4 +13,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
 
+    @Query("SELECT u.id FROM User u WHERE u.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+
+    // Doar coloanele necesare principalului autentificat, fără a hidrata entitatea User
+    @Query("SELECT u.id AS id, u.username AS username FROM User u WHERE u.username = :username")
+    Optional<UserPrincipalView> findPrincipalByUsername(@Param("username") String username);
+
 }
@@ -0,0 +1,114 @@
+package com.example.app.service;
+
+import com.example.app.dto.DbAccountResponseDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Cache pentru lista de conturi afișată în dashboard (GET /api/v1/db-accounts), indexat după username.
+// O intrare este invalidată imediat după commit-ul oricărei tranzacții care modifică unul dintre conturile
+// utilizatorului (AccountsChangedEvent). Invalidarea este locală: doar nodul care a făcut modificarea o vede,
+// deci este exactă numai pentru o singură instanță. Cu mai multe noduri, TTL-ul scurt limitează cât timp
+// un alt nod poate servi o listă (sau un sold) învechită.
+// O invalidare sosită în timpul unei încărcări (inclusiv prima, când maparea userId -> username nu există încă)
+// este reținută cu un număr de ordine; încărcarea începută înaintea ei este întoarsă apelantului, dar nu intră în cache.
+// Metrici: cache-ul "accountLists" (hit/miss), account.list.cache.staleness (vechimea listelor servite din cache)
+// și account.list.cache.invalidations.
+@Service
+public class AccountListCache {
+
+    // Lista de conturi împreună cu proprietarul ei, ca invalidarea după userId să găsească intrarea
+    public record AccountList(Long userId, List<DbAccountResponseDTO> accounts) {
+    }
+
+    private record CachedAccountList(Long userId, List<DbAccountResponseDTO> accounts, long loadedAtNanos) {
+    }
+
+    private final Cache<String, CachedAccountList> accountLists;
+    private final Map<Long, String> usernamesByUserId = new ConcurrentHashMap<>();
+    // userId -> numărul de ordine al ultimei invalidări; ajunge să fie păstrat cât poate dura o încărcare
+    private final Cache<Long, Long> invalidatedAt;
+    private final AtomicLong invalidationSequence = new AtomicLong();
+    private final Timer staleness;
+    private final Counter invalidations;
+
+    @Autowired
+    public AccountListCache(MeterRegistry meterRegistry,
+                            @Value("${accounts.list-cache.ttl:30000}") long ttlMillis,
+                            @Value("${accounts.list-cache.max-size:10000}") long maxSize) {
+        this.accountLists = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                // Rulează atomic cu eliminarea, deci nu poate șterge maparea unei intrări reîncărcate între timp
+                .<String, CachedAccountList>evictionListener((username, cached, cause) -> {
+                    if (cached != null) {
+                        usernamesByUserId.remove(cached.userId(), username);
+                    }
+                })
+                .recordStats()
+                .build();
+        this.invalidatedAt = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, accountLists, "accountLists");
+        this.staleness = Timer.builder("account.list.cache.staleness")
+                .description("Vechimea listelor de conturi servite din cache")
+                .register(meterRegistry);
+        this.invalidations = Counter.builder("account.list.cache.invalidations")
+                .register(meterRegistry);
+    }
+
+    public List<DbAccountResponseDTO> get(String username, Function<String, AccountList> loader) {
+        long now = System.nanoTime();
+        long loadStartedAfter = invalidationSequence.get();
+        AccountList[] notCached = new AccountList[1];
+        CachedAccountList cached = accountLists.get(username, key -> {
+            AccountList loaded = loader.apply(key);
+            // Verificarea precede maparea, iar invalidarea scrie numărul de ordine înainte de a citi maparea,
+            // deci cel puțin una dintre ele o vede pe cealaltă
+            Long invalidated = invalidatedAt.getIfPresent(loaded.userId());
+            if (invalidated != null && invalidated > loadStartedAfter) {
+                notCached[0] = loaded;
+                return null; // Conturile s-au schimbat în timpul citirii: nu se pune în cache
+            }
+            usernamesByUserId.put(loaded.userId(), key);
+            return new CachedAccountList(loaded.userId(), List.copyOf(loaded.accounts()), System.nanoTime());
+        });
+        if (cached == null) {
+            return List.copyOf(notCached[0].accounts());
+        }
+        if (cached.loadedAtNanos() < now) { // Servită din cache, nu încărcată acum
+            staleness.record(Duration.ofNanos(now - cached.loadedAtNanos()));
+        }
+        return cached.accounts();
+    }
+
+    // O încărcare aflată în curs pentru același username este așteptată și apoi eliminată, deci nu rămâne în cache
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAccountsChanged(AccountsChangedEvent event) {
+        for (Long userId : event.userIds()) {
+            invalidatedAt.put(userId, invalidationSequence.incrementAndGet());
+            String username = usernamesByUserId.get(userId);
+            if (username != null) {
+                accountLists.invalidate(username);
+                invalidations.increment();
+            }
+        }
+    }
+}
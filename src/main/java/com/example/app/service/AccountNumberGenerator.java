@@ -0,0 +1,75 @@
+package com.example.app.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+
+/**
+ * Generează numere de cont IBAN moldovenești (MDkk + cod bancă + 18 caractere), unice prin construcție:
+ * partea de cont este formată din ID-ul nodului (2 cifre) și o valoare de 16 cifre din account_number_seq.
+ * Fiecare nod rezervă din secvență blocuri de {@link #BLOCK_SIZE} valori, deci baza de date este atinsă
+ * o singură dată la fiecare bloc, iar nodurile nu se coordonează între ele și nu verifică existența numărului.
+ * Cifrele de control sunt calculate după ISO 13616 (mod 97).
+ */
+@Component
+public class AccountNumberGenerator {
+
+    static final int BLOCK_SIZE = 1000; // Egal cu pasul secvenței (changeset-ul 015)
+
+    private static final String COUNTRY_CODE = "MD";
+    private static final String NEXT_BLOCK_SQL = "SELECT nextval('account_number_seq')";
+    private static final long MAX_SEQUENCE_VALUE = 9_999_999_999_999_999L; // 16 cifre
+    private static final BigInteger MOD_97 = BigInteger.valueOf(97);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String bankCode;
+    private final String nodeId;
+
+    private long nextValue;
+    private long blockEnd; // Exclusiv; nextValue == blockEnd înseamnă că blocul curent s-a epuizat
+
+    @Autowired
+    public AccountNumberGenerator(JdbcTemplate jdbcTemplate,
+                                  @Value("${accounts.number.bank-code:BB}") String bankCode,
+                                  @Value("${accounts.number.node-id:0}") int nodeId) {
+        if (bankCode == null || !bankCode.matches("[A-Z]{2}")) {
+            throw new IllegalArgumentException("accounts.number.bank-code trebuie să conțină exact 2 litere mari: " + bankCode);
+        }
+        if (nodeId < 0 || nodeId > 99) {
+            throw new IllegalArgumentException("accounts.number.node-id trebuie să fie între 0 și 99: " + nodeId);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.bankCode = bankCode;
+        this.nodeId = String.format("%02d", nodeId);
+    }
+
+    public synchronized String nextAccountNumber() {
+        if (nextValue == blockEnd) {
+            Long blockStart = jdbcTemplate.queryForObject(NEXT_BLOCK_SQL, Long.class);
+            if (blockStart == null || blockStart + BLOCK_SIZE - 1 > MAX_SEQUENCE_VALUE) {
+                throw new IllegalStateException("Secvența account_number_seq a depășit capacitatea numerelor de cont.");
+            }
+            nextValue = blockStart;
+            blockEnd = blockStart + BLOCK_SIZE;
+        }
+        return toIban(nodeId + String.format("%016d", nextValue++));
+    }
+
+    private String toIban(String accountPart) {
+        String bban = bankCode + accountPart;
+        return COUNTRY_CODE + checkDigits(bban) + bban;
+    }
+
+    // Se mută codul țării și "00" la sfârșit, literele devin numere (A=10 ... Z=35), iar controlul este 98 - (n mod 97)
+    static String checkDigits(String bban) {
+        StringBuilder numeric = new StringBuilder();
+        for (char c : (bban + COUNTRY_CODE + "00").toCharArray()) {
+            numeric.append(Character.getNumericValue(c));
+        }
+        int check = 98 - new BigInteger(numeric.toString()).mod(MOD_97).intValue();
+        return String.format("%02d", check);
+    }
+}
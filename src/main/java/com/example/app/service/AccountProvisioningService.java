@@ -0,0 +1,245 @@
+package com.example.app.service;
+
+import com.example.app.dto.CreateAccountRequestDTO;
+import com.example.app.dto.DbAccountResponseDTO;
+import com.example.app.dto.account.BulkAccountItemResultDTO;
+import com.example.app.dto.account.BulkAccountResponseDTO;
+import com.example.app.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Deschide mai multe conturi pentru același utilizator (onboarding corporativ) într-o singură tranzacție.
+// Utilizatorul și tipurile de cont sunt rezolvate o singură dată, numerele de cont vin din AccountNumberGenerator,
+// iar conturile și depunerile inițiale sunt scrise cu JDBC batching. Rândurile invalide primesc propriul
+// rezultat și nu afectează restul lotului.
+@Service
+public class AccountProvisioningService {
+
+    private static final String CSV_HEADER_FIRST_COLUMN = "accountTypeName";
+    private static final String DEFAULT_CURRENCY = "LEI";
+
+    private static final String INSERT_ACCOUNT_SQL = "INSERT INTO db_accounts " +
+            "(account_number, user_id, account_type_id, balance, currency, insurance_benefit, has_premium_benefits, opened_date) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_DEPOSIT_SQL = "INSERT INTO db_transactions " +
+            "(from_account_id, to_account_id, amount, currency, description, timestamp, transaction_type) " +
+            "VALUES (NULL, ?, ?, ?, 'Depunere inițială', ?, 'DEPOSIT')";
+
+    private final UserRepository userRepository;
+    private final AccountTypeRegistry accountTypeRegistry;
+    private final AccountNumberGenerator accountNumberGenerator;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxBatchSize;
+
+    @Autowired
+    public AccountProvisioningService(UserRepository userRepository,
+                                      AccountTypeRegistry accountTypeRegistry,
+                                      AccountNumberGenerator accountNumberGenerator,
+                                      JdbcTemplate jdbcTemplate,
+                                      ApplicationEventPublisher eventPublisher,
+                                      @Value("${accounts.bulk.max-size:1000}") int maxBatchSize) {
+        this.userRepository = userRepository;
+        this.accountTypeRegistry = accountTypeRegistry;
+        this.accountNumberGenerator = accountNumberGenerator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Transactional
+    public BulkAccountResponseDTO provisionAccounts(String username, List<CreateAccountRequestDTO> requests) {
+        List<ProvisioningRow> rows = new ArrayList<>(requests.size());
+        for (CreateAccountRequestDTO request : requests) {
+            rows.add(new ProvisioningRow(request, null));
+        }
+        return provision(username, rows);
+    }
+
+    /**
+     * Format: {@code accountTypeName,initialDeposit[,currency]}, un cont pe linie; antetul este opțional.
+     */
+    @Transactional
+    public BulkAccountResponseDTO provisionAccountsFromCsv(String username, String csv) {
+        List<ProvisioningRow> rows = new ArrayList<>();
+        for (String line : csv.split("\\r?\\n")) {
+            if (line.isBlank() || (rows.isEmpty() && line.trim().startsWith(CSV_HEADER_FIRST_COLUMN))) {
+                continue;
+            }
+            rows.add(parseCsvLine(line));
+        }
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("Fișierul CSV nu conține niciun cont.");
+        }
+        return provision(username, rows);
+    }
+
+    private BulkAccountResponseDTO provision(String username, List<ProvisioningRow> rows) {
+        if (rows.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Lotul depășește numărul maxim de conturi permise (" + maxBatchSize + ").");
+        }
+        Long userId = userRepository.findIdByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("Utilizator negăsit: " + username));
+
+        BulkAccountItemResultDTO[] results = new BulkAccountItemResultDTO[rows.size()];
+        List<Integer> acceptedIndexes = new ArrayList<>(rows.size());
+        List<DbAccountResponseDTO> accepted = new ArrayList<>(rows.size());
+        List<Long> acceptedTypeIds = new ArrayList<>(rows.size());
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int index = 0; index < rows.size(); index++) {
+            ProvisioningRow row = rows.get(index);
+            String error = row.error() != null ? row.error() : validate(row.request());
+            if (error != null) {
+                results[index] = new BulkAccountItemResultDTO(index, BulkAccountItemResultDTO.STATUS_FAILED, error, null);
+                continue;
+            }
+
+            CreateAccountRequestDTO request = row.request();
+            AccountTypeRegistry.AccountTypeDefinition accountType = accountTypeRegistry.findByName(request.getAccountTypeName()).get();
+            String currency = request.getCurrency() != null && !request.getCurrency().isBlank()
+                    ? request.getCurrency().trim().toUpperCase()
+                    : DEFAULT_CURRENCY;
+            acceptedIndexes.add(index);
+            acceptedTypeIds.add(accountType.id());
+            accepted.add(new DbAccountResponseDTO(null, accountNumberGenerator.nextAccountNumber(), username,
+                    accountType.typeName(), request.getInitialDeposit(), currency, BigDecimal.ZERO,
+                    accountType.isPremium(), now));
+        }
+
+        if (!accepted.isEmpty()) {
+            insertAccounts(userId, accepted, acceptedTypeIds);
+            insertInitialDeposits(accepted);
+            eventPublisher.publishEvent(new AccountsChangedEvent(Set.of(userId)));
+        }
+        for (int i = 0; i < accepted.size(); i++) {
+            int index = acceptedIndexes.get(i);
+            results[index] = new BulkAccountItemResultDTO(index, BulkAccountItemResultDTO.STATUS_SUCCESS,
+                    "Cont creat cu succes.", accepted.get(i));
+        }
+
+        int succeeded = accepted.size();
+        int failed = rows.size() - succeeded;
+        return new BulkAccountResponseDTO("Lot procesat: " + succeeded + " conturi create, " + failed + " respinse.",
+                succeeded, failed, List.of(results));
+    }
+
+    // Un singur batch pentru toate conturile. ID-urile generate vin cu numărul de cont (RETURNING id, account_number)
+    // și sunt asociate după el, nu după poziție: ordinea cheilor returnate de driver nu este garantată.
+    private void insertAccounts(Long userId, List<DbAccountResponseDTO> accounts, List<Long> accountTypeIds) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_ACCOUNT_SQL, new String[] { "id", "account_number" }),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        DbAccountResponseDTO account = accounts.get(i);
+                        ps.setString(1, account.getAccountNumber());
+                        ps.setLong(2, userId);
+                        ps.setLong(3, accountTypeIds.get(i));
+                        ps.setBigDecimal(4, account.getBalance());
+                        ps.setString(5, account.getCurrency());
+                        ps.setBigDecimal(6, account.getInsuranceBenefit());
+                        ps.setBoolean(7, account.getHasPremiumBenefits());
+                        ps.setTimestamp(8, Timestamp.valueOf(account.getOpenedDate()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return accounts.size();
+                    }
+                },
+                keyHolder);
+
+        Map<String, Long> idsByAccountNumber = new HashMap<>(accounts.size() * 2);
+        for (Map<String, Object> key : keyHolder.getKeyList()) {
+            idsByAccountNumber.put((String) key.get("account_number"), ((Number) key.get("id")).longValue());
+        }
+        for (DbAccountResponseDTO account : accounts) {
+            Long id = idsByAccountNumber.get(account.getAccountNumber());
+            if (id == null) {
+                throw new IllegalStateException("ID-ul generat lipsește pentru contul " + account.getAccountNumber());
+            }
+            account.setId(id);
+        }
+    }
+
+    private void insertInitialDeposits(List<DbAccountResponseDTO> accounts) {
+        List<Object[]> deposits = accounts.stream()
+                .filter(account -> account.getBalance().signum() > 0)
+                .map(account -> new Object[] {
+                        account.getId(),
+                        account.getBalance(),
+                        account.getCurrency(),
+                        Timestamp.valueOf(account.getOpenedDate())
+                })
+                .toList();
+        if (!deposits.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_DEPOSIT_SQL, deposits);
+        }
+    }
+
+    // Aceleași reguli ca CreateAccountRequestDTO, verificate pe rând ca un rând greșit să nu respingă tot lotul
+    private String validate(CreateAccountRequestDTO request) {
+        if (request == null) {
+            return "Rândul este gol.";
+        }
+        if (request.getAccountTypeName() == null || request.getAccountTypeName().isBlank()) {
+            return "Numele tipului de cont este obligatoriu.";
+        }
+        if (accountTypeRegistry.findByName(request.getAccountTypeName()).isEmpty()) {
+            return "Tipul de cont negăsit: " + request.getAccountTypeName();
+        }
+        if (request.getInitialDeposit() == null) {
+            return "Depunerea inițială este obligatorie.";
+        }
+        if (request.getInitialDeposit().signum() < 0) {
+            return "Depunerea inițială trebuie să fie zero sau pozitivă.";
+        }
+        if (request.getCurrency() != null && !request.getCurrency().isBlank()
+                && !request.getCurrency().trim().matches("[A-Za-z]{3}")) {
+            return "Moneda trebuie să fie un cod din 3 litere: " + request.getCurrency();
+        }
+        return null;
+    }
+
+    private ProvisioningRow parseCsvLine(String line) {
+        String[] columns = line.split(",", -1);
+        if (columns.length < 2 || columns.length > 3) {
+            return new ProvisioningRow(null, "Rândul trebuie să aibă forma accountTypeName,initialDeposit[,currency]: " + line);
+        }
+        CreateAccountRequestDTO request = new CreateAccountRequestDTO();
+        request.setAccountTypeName(columns[0].trim());
+        if (columns.length == 3) {
+            request.setCurrency(columns[2].trim());
+        }
+        try {
+            request.setInitialDeposit(new BigDecimal(columns[1].trim()));
+        } catch (NumberFormatException e) {
+            return new ProvisioningRow(request, "Depunerea inițială nu este un număr: " + columns[1].trim());
+        }
+        return new ProvisioningRow(request, null);
+    }
+
+    // Un rând din lot; error este completat dacă rândul nu a putut fi citit din CSV
+    private record ProvisioningRow(CreateAccountRequestDTO request, String error) {
+    }
+}
@@ -5,6 +5,7 @@ import com.example.app.decorator.PremiumBenefitsDecorator;
 import com.example.app.dto.CreateAccountRequestDTO;
 import com.example.app.dto.DbAccountResponseDTO;
 import com.example.app.dto.DbTransactionResponseDTO;
+import com.example.app.dto.TransactionPageDTO;
 import com.example.app.exception.InsufficientFundsException;
 // import com.example.app.exception.UserAlreadyExistsException; // Comentat dacă nu e folosit direct aici
 import com.example.app.exception.UnauthorizedOperationException;
@@ -12,18 +13,20 @@ import com.example.app.factory.AccountFactory;
 import com.example.app.interfaces.AccountAbstractFactory;
 import com.example.app.interfaces.NotificationService;
 import com.example.app.model.Account;
-import com.example.app.model.AccountType;
 import com.example.app.model.DbAccount;
 import com.example.app.model.DbTransaction;
 import com.example.app.model.User;
-import com.example.app.repository.AccountTypeRepository;
+import com.example.app.repository.DbAccountBalanceView;
 import com.example.app.repository.DbAccountRepository;
+import com.example.app.repository.DbTransactionHistoryView;
 import com.example.app.repository.DbTransactionRepository;
 import com.example.app.repository.UserRepository;
+import com.example.app.util.TransactionCursor;
 import com.example.app.util.UserExtractServiceImpl;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -34,7 +37,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service("accountServiceImpl")
@@ -49,8 +52,11 @@ public class AccountService {
     private final DbAccountRepository dbAccountRepository;
     private final DbTransactionRepository dbTransactionRepository;
     private final UserRepository userRepository;
-    private final AccountTypeRepository accountTypeRepository;
+    private final AccountTypeRegistry accountTypeRegistry;
     private final UserExtractServiceImpl userExtractService;
+    private final AccountListCache accountListCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AccountNumberGenerator accountNumberGenerator;
 
     @Autowired
     public AccountService(
@@ -62,8 +68,11 @@ public class AccountService {
             DbAccountRepository dbAccountRepository,
             DbTransactionRepository dbTransactionRepository,
             UserRepository userRepository,
-            AccountTypeRepository accountTypeRepository,
-            UserExtractServiceImpl userExtractService
+            AccountTypeRegistry accountTypeRegistry,
+            UserExtractServiceImpl userExtractService,
+            AccountListCache accountListCache,
+            ApplicationEventPublisher eventPublisher,
+            AccountNumberGenerator accountNumberGenerator
     ) {
         this.notificationService = notificationService;
         this.premiumAccountFactory = premiumAccountFactory;
@@ -73,8 +82,11 @@ public class AccountService {
         this.dbAccountRepository = dbAccountRepository;
         this.dbTransactionRepository = dbTransactionRepository;
         this.userRepository = userRepository;
-        this.accountTypeRepository = accountTypeRepository;
+        this.accountTypeRegistry = accountTypeRegistry;
         this.userExtractService = userExtractService;
+        this.accountListCache = accountListCache;
+        this.eventPublisher = eventPublisher;
+        this.accountNumberGenerator = accountNumberGenerator;
     }
 
     // --- METODE EXISTENTE PENTRU CONTURI IN-MEMORY ---
@@ -155,26 +167,19 @@ public class AccountService {
     }
 
     // --- NOI METODE PENTRU INTERACȚIUNEA CU BAZA DE DATE ---
-    private String generateUniqueAccountNumber() {
-        String candidate;
-        do {
-            candidate = "MD" + UUID.randomUUID().toString().replace("-", "").substring(0, 14).toUpperCase();
-        } while (dbAccountRepository.existsByAccountNumber(candidate));
-        return candidate;
-    }
-
     @Transactional
     public DbAccountResponseDTO createDbAccountForUser(String username, CreateAccountRequestDTO requestDTO) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Utilizator negăsit: " + username));
 
-        AccountType accountType = accountTypeRepository.findByTypeName(requestDTO.getAccountTypeName())
+        // Tipul vine din registrul din memorie; asocierea folosește doar o referință, fără SELECT pe account_types
+        AccountTypeRegistry.AccountTypeDefinition accountType = accountTypeRegistry.findByName(requestDTO.getAccountTypeName())
                 .orElseThrow(() -> new EntityNotFoundException("Tipul de cont negăsit: " + requestDTO.getAccountTypeName()));
 
         DbAccount newDbAccount = new DbAccount();
-        newDbAccount.setAccountNumber(generateUniqueAccountNumber());
+        newDbAccount.setAccountNumber(accountNumberGenerator.nextAccountNumber());
         newDbAccount.setUser(user);
-        newDbAccount.setAccountType(accountType);
+        newDbAccount.setAccountType(accountTypeRegistry.getReference(accountType));
         newDbAccount.setBalance(requestDTO.getInitialDeposit());
         String currency = requestDTO.getCurrency() != null && !requestDTO.getCurrency().trim().isEmpty()
                 ? requestDTO.getCurrency().toUpperCase()
@@ -182,7 +187,7 @@ public class AccountService {
         newDbAccount.setCurrency(currency);
         newDbAccount.setOpenedDate(LocalDateTime.now());
 
-        if (accountType.getTypeName().toUpperCase().contains("PREMIUM")) {
+        if (accountType.isPremium()) {
             newDbAccount.setHasPremiumBenefits(true);
         } else {
             newDbAccount.setHasPremiumBenefits(false);
@@ -202,45 +207,77 @@ public class AccountService {
             initialDepositTransaction.setTimestamp(LocalDateTime.now());
             dbTransactionRepository.save(initialDepositTransaction);
         }
+        eventPublisher.publishEvent(new AccountsChangedEvent(Set.of(user.getId())));
         return mapDbAccountToResponseDTO(savedAccount);
     }
 
     @Transactional(readOnly = true)
     public List<DbAccountResponseDTO> getDbAccountsByUsername(String username) {
-        if (!userRepository.existsByUsername(username)) {
-            throw new UsernameNotFoundException("Utilizator negăsit: " + username);
-        }
-        List<DbAccount> userAccounts = dbAccountRepository.findByUserUsername(username);
-        return userAccounts.stream()
-                .map(this::mapDbAccountToResponseDTO)
-                .collect(Collectors.toList());
+        return accountListCache.get(username, key -> {
+            Long userId = userRepository.findIdByUsername(key)
+                    .orElseThrow(() -> new UsernameNotFoundException("Utilizator negăsit: " + key));
+            List<DbAccount> userAccounts = dbAccountRepository.findByUserUsername(key);
+            return new AccountListCache.AccountList(userId, userAccounts.stream()
+                    .map(this::mapDbAccountToResponseDTO)
+                    .collect(Collectors.toList()));
+        });
+    }
+
+    // Verifică proprietarul din lista de conturi din cache (fără interogări când lista este deja încărcată).
+    // Folosită înaintea unui 304: un cont care lipsește din listă trece prin verificarea completă.
+    public boolean isAccountOwnedBy(String accountNumber, String username) {
+        return getDbAccountsByUsername(username).stream()
+                .anyMatch(account -> account.getAccountNumber().equals(accountNumber));
     }
 
     @Transactional(readOnly = true)
-    public List<DbTransactionResponseDTO> getAllDbTransactionsByUsername(String username) {
-        if (!userRepository.existsByUsername(username)) {
-            throw new UsernameNotFoundException("Utilizator negăsit: " + username);
+    public TransactionPageDTO getDbTransactionsPageByUsername(String username, String cursor, int pageSize) {
+        Long userId = userRepository.findIdByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("Utilizator negăsit: " + username));
+        TransactionCursor position = TransactionCursor.decode(cursor);
+        // Conturile sunt rezolvate o singură dată; interogarea istoricului filtrează apoi direct pe coloanele indexate
+        List<Long> accountIds = dbAccountRepository.findIdsByUserId(userId);
+        if (accountIds.isEmpty()) {
+            return new TransactionPageDTO(List.of(), null);
         }
-        List<DbTransaction> transactions = dbTransactionRepository.findAllTransactionsByUsername(username);
-        return transactions.stream()
-                .map(this::mapDbTransactionToResponseDTO) // Aici se folosește metoda corectată
+        // Se citește un rând în plus doar pentru a afla dacă există o pagină următoare
+        List<DbTransactionResponseDTO> transactions = dbTransactionRepository.findPageByAccountIds(
+                        accountIds, position.timestamp(), position.id(), pageSize + 1).stream()
+                .map(this::mapHistoryViewToResponseDTO)
                 .collect(Collectors.toList());
+        return toTransactionPage(transactions, pageSize);
     }
 
     @Transactional(readOnly = true)
-    public List<DbTransactionResponseDTO> getDbTransactionsByAccountNumberForUser(String accountNumber, String username) {
-        DbAccount account = dbAccountRepository.findByAccountNumber(accountNumber)
+    public TransactionPageDTO getDbTransactionsPageByAccountNumberForUser(String accountNumber, String username, String cursor, int pageSize) {
+        // Proiecția contului ajunge pentru verificarea proprietarului (fără AccountType și User)
+        DbAccountBalanceView account = dbAccountRepository.findBalanceViewByAccountNumber(accountNumber)
                 .orElseThrow(() -> new EntityNotFoundException("Cont negăsit: " + accountNumber));
+        Long userId = userRepository.findIdByUsername(username).orElse(null);
 
-        if (!account.getUser().getUsername().equals(username)) {
+        if (!account.getUserId().equals(userId)) {
             // Folosește o excepție mai specifică sau gestionează altfel (nu SecurityException direct)
             throw new UnauthorizedOperationException("Utilizatorul " + username + " nu este autorizat să vadă tranzacțiile pentru contul " + accountNumber);
         }
 
-        List<DbTransaction> transactions = dbTransactionRepository.findAllByAccountNumber(accountNumber);
-        return transactions.stream()
-                .map(this::mapDbTransactionToResponseDTO) // Aici se folosește metoda corectată
+        TransactionCursor position = TransactionCursor.decode(cursor);
+        List<DbTransactionResponseDTO> transactions = dbTransactionRepository.findPageByAccountId(
+                        account.getId(), position.timestamp(), position.id(), pageSize + 1).stream()
+                .map(this::mapHistoryViewToResponseDTO)
                 .collect(Collectors.toList());
+        return toTransactionPage(transactions, pageSize);
+    }
+
+    // Rândurile vin din proiecții native (fără încărcări lazy pentru conturi)
+    private TransactionPageDTO toTransactionPage(List<DbTransactionResponseDTO> transactions, int pageSize) {
+        boolean hasMore = transactions.size() > pageSize;
+        List<DbTransactionResponseDTO> items = hasMore ? transactions.subList(0, pageSize) : transactions;
+        String nextCursor = null;
+        if (hasMore) {
+            DbTransactionResponseDTO last = items.get(items.size() - 1);
+            nextCursor = new TransactionCursor(last.getTimestamp(), last.getId()).encode();
+        }
+        return new TransactionPageDTO(items, nextCursor);
     }
 
     @Transactional(readOnly = true)
@@ -254,13 +291,26 @@ public class AccountService {
         return mapDbAccountToResponseDTO(account);
     }
 
+    private DbTransactionResponseDTO mapHistoryViewToResponseDTO(DbTransactionHistoryView view) {
+        return new DbTransactionResponseDTO(
+                view.getId(),
+                view.getFromAccountNumber() != null ? view.getFromAccountNumber() : "EXTERNAL",
+                view.getToAccountNumber() != null ? view.getToAccountNumber() : "EXTERNAL",
+                view.getAmount(),
+                view.getCurrency(),
+                view.getDescription(),
+                view.getTimestamp(),
+                view.getTransactionType()
+        );
+    }
+
     private DbAccountResponseDTO mapDbAccountToResponseDTO(DbAccount dbAccount) {
         if (dbAccount == null) return null;
         return new DbAccountResponseDTO(
                 dbAccount.getId(),
                 dbAccount.getAccountNumber(),
                 dbAccount.getUser().getUsername(),
-                dbAccount.getAccountType().getTypeName(),
+                accountTypeRegistry.getById(dbAccount.getAccountType().getId()).typeName(),
                 dbAccount.getBalance(),
                 dbAccount.getCurrency(),
                 dbAccount.getInsuranceBenefit(),
@@ -268,24 +318,4 @@ public class AccountService {
                 dbAccount.getOpenedDate()
         );
     }
-
-    // Metoda Corectată
-    private DbTransactionResponseDTO mapDbTransactionToResponseDTO(DbTransaction dbTransaction) {
-        if (dbTransaction == null) {
-            return null;
-        }
-        String fromAccNum = dbTransaction.getFromAccount() != null ? dbTransaction.getFromAccount().getAccountNumber() : "EXTERNAL";
-        String toAccNum = dbTransaction.getToAccount() != null ? dbTransaction.getToAccount().getAccountNumber() : "EXTERNAL";
-
-        return new DbTransactionResponseDTO(
-                dbTransaction.getId(),
-                fromAccNum,
-                toAccNum,
-                dbTransaction.getAmount(),
-                dbTransaction.getCurrency(), // Am adăugat dbTransaction.getCurrency()
-                dbTransaction.getDescription(),
-                dbTransaction.getTimestamp(),
-                dbTransaction.getTransactionType()
-        );
-    }
 }
\ No newline at end of file
@@ -6,7 +6,6 @@ import com.example.app.interfaces.AccountAbstractFactory;
 import com.example.app.interfaces.NotificationService;
 import com.example.app.model.Account;
 // Importurile necesare pentru dependențele constructorului superclasei
-import com.example.app.repository.AccountTypeRepository;
 import com.example.app.repository.DbAccountRepository;
 import com.example.app.repository.DbTransactionRepository;
 import com.example.app.repository.UserRepository;
@@ -14,10 +13,11 @@ import com.example.app.util.UserExtractServiceImpl;
 // DTO-uri și alte clase dacă proxy-ul ar suprascrie metode care le folosesc
 import com.example.app.dto.CreateAccountRequestDTO;
 import com.example.app.dto.DbAccountResponseDTO;
-import com.example.app.dto.DbTransactionResponseDTO;
+import com.example.app.dto.TransactionPageDTO;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -44,8 +44,11 @@ public class AccountServiceSecurityProxy extends AccountService {
             DbAccountRepository dbAccountRepository,                           // Adăugat
             DbTransactionRepository dbTransactionRepository,                 // Adăugat
             UserRepository userRepository,                                     // Adăugat
-            AccountTypeRepository accountTypeRepository,                     // Adăugat
-            UserExtractServiceImpl userExtractService                        // Adăugat
+            AccountTypeRegistry accountTypeRegistry,                         // Adăugat
+            UserExtractServiceImpl userExtractService,                       // Adăugat
+            AccountListCache accountListCache,
+            ApplicationEventPublisher eventPublisher,
+            AccountNumberGenerator accountNumberGenerator
     ) {
         // Apelează constructorul clasei părinte cu toate argumentele necesare
         super(
@@ -57,8 +60,11 @@ public class AccountServiceSecurityProxy extends AccountService {
                 dbAccountRepository,    // Transmis corect
                 dbTransactionRepository,// Transmis corect
                 userRepository,         // Transmis corect
-                accountTypeRepository,  // Transmis corect
-                userExtractService      // Transmis corect
+                accountTypeRegistry,    // Transmis corect
+                userExtractService,     // Transmis corect
+                accountListCache,
+                eventPublisher,
+                accountNumberGenerator
         );
         this.realService = realService; // Păstrează referința la serviciul real
     }
@@ -156,14 +162,14 @@ public class AccountServiceSecurityProxy extends AccountService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<DbTransactionResponseDTO> getAllDbTransactionsByUsername(String username) {
-        return realService.getAllDbTransactionsByUsername(username);
+    public TransactionPageDTO getDbTransactionsPageByUsername(String username, String cursor, int pageSize) {
+        return realService.getDbTransactionsPageByUsername(username, cursor, pageSize);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<DbTransactionResponseDTO> getDbTransactionsByAccountNumberForUser(String accountNumber, String username) {
-        return realService.getDbTransactionsByAccountNumberForUser(accountNumber, username);
+    public TransactionPageDTO getDbTransactionsPageByAccountNumberForUser(String accountNumber, String username, String cursor, int pageSize) {
+        return realService.getDbTransactionsPageByAccountNumberForUser(accountNumber, username, cursor, pageSize);
     }
 
     @Override
@@ -0,0 +1,75 @@
+package com.example.app.service;
+
+import com.example.app.model.AccountType;
+import com.example.app.repository.AccountTypeRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Tipurile de cont (tabela account_types), încărcate o singură dată la pornire și ținute într-un snapshot imutabil.
+ * Căutările după nume sau ID nu accesează baza de date. După modificarea unui tip, registrul se reîncarcă explicit
+ * prin {@link #reload()} (expus și ca endpoint actuator: POST /actuator/accounttypes).
+ */
+@Slf4j
+@Service
+public class AccountTypeRegistry {
+
+    // Copie imutabilă a unui rând din account_types (entitatea AccountType rămâne doar pentru asocierea din DbAccount)
+    public record AccountTypeDefinition(Long id, String typeName, BigDecimal overdraftLimit, BigDecimal interestRate) {
+        public boolean isPremium() {
+            return typeName.toUpperCase().contains("PREMIUM");
+        }
+    }
+
+    private record Snapshot(Map<String, AccountTypeDefinition> byName, Map<Long, AccountTypeDefinition> byId) {
+    }
+
+    private final AccountTypeRepository accountTypeRepository;
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of());
+
+    @Autowired
+    public AccountTypeRegistry(AccountTypeRepository accountTypeRepository) {
+        this.accountTypeRepository = accountTypeRepository;
+    }
+
+    @PostConstruct
+    public void reload() {
+        Map<Long, AccountTypeDefinition> byId = accountTypeRepository.findAll().stream()
+                .map(type -> new AccountTypeDefinition(type.getId(), type.getTypeName(), type.getOverdraftLimit(), type.getInterestRate()))
+                .collect(Collectors.toUnmodifiableMap(AccountTypeDefinition::id, Function.identity()));
+        Map<String, AccountTypeDefinition> byName = byId.values().stream()
+                .collect(Collectors.toUnmodifiableMap(AccountTypeDefinition::typeName, Function.identity()));
+        snapshot = new Snapshot(byName, byId);
+        log.info("Încărcate {} tipuri de cont: {}", byName.size(), byName.keySet());
+    }
+
+    public Optional<AccountTypeDefinition> findByName(String typeName) {
+        return typeName == null ? Optional.empty() : Optional.ofNullable(snapshot.byName().get(typeName));
+    }
+
+    public AccountTypeDefinition getById(Long id) {
+        AccountTypeDefinition definition = snapshot.byId().get(id);
+        if (definition == null) {
+            throw new IllegalStateException("Tipul de cont cu ID " + id + " nu este încărcat. Reîncărcați registrul tipurilor de cont.");
+        }
+        return definition;
+    }
+
+    public Collection<AccountTypeDefinition> getAll() {
+        return snapshot.byId().values();
+    }
+
+    // Referință (proxy) pentru asocierea DbAccount.accountType, fără SELECT
+    public AccountType getReference(AccountTypeDefinition definition) {
+        return accountTypeRepository.getReferenceById(definition.id());
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.app.service;
+
+import java.util.Set;
+
+/**
+ * Publicat în tranzacția care modifică soldurile sau lista de conturi ale utilizatorilor dați.
+ * Ascultătorii îl primesc doar după commit (vezi {@link AccountListCache}).
+ */
+public record AccountsChangedEvent(Set<Long> userIds) {
+}
@@ -1,35 +1,86 @@
 package com.example.app.service;
 
 import com.example.app.dto.LoginRequest;
+import com.example.app.dto.LoginResponse;
 import com.example.app.dto.RegisterRequest;
 import com.example.app.dto.UserDTO;
+import com.example.app.exception.AuthenticationBusyException;
+import com.example.app.exception.InvalidRefreshTokenException;
 import com.example.app.exception.UserAlreadyExistsException;
 import com.example.app.model.User;
 import com.example.app.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.AuthenticationManager;
+import com.example.app.util.JwtServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 @Service
-@RequiredArgsConstructor
 public class AuthenticationService {
+    private static final String USER_NOT_FOUND_PASSWORD = "userNotFoundPassword";
+
     private final UserRepository userRepository;
 
     private final PasswordEncoder passwordEncoder;
 
-    private final AuthenticationManager authenticationManager;
+    private final UserDetailsPasswordService userDetailsPasswordService;
+
+    private final UserPrincipalCache userPrincipalCache;
+
+    private final PasswordHashingService passwordHashingService;
 
+    private final JwtServiceImpl jwtService;
 
+    private final RefreshTokenService refreshTokenService;
 
-    public void signup(UserDTO userDTO) {
-        var user = userRepository.findByUsername(userDTO.getUsername());
+    private final TokenRevocationService tokenRevocationService;
+
+    // Continuările (insert-uri, emiterea token-urilor) rulează aici, nu pe pool-ul BCrypt
+    private final Executor continuationExecutor;
+
+    // Hash comparat când utilizatorul nu există, ca durata răspunsului să nu dezvăluie dacă username-ul există
+    private volatile String userNotFoundEncodedPassword;
+
+    @Autowired
+    public AuthenticationService(UserRepository userRepository,
+                                 PasswordEncoder passwordEncoder,
+                                 UserDetailsPasswordService userDetailsPasswordService,
+                                 UserPrincipalCache userPrincipalCache,
+                                 PasswordHashingService passwordHashingService,
+                                 JwtServiceImpl jwtService,
+                                 RefreshTokenService refreshTokenService,
+                                 TokenRevocationService tokenRevocationService,
+                                 @Qualifier("applicationTaskExecutor") Executor continuationExecutor) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.userDetailsPasswordService = userDetailsPasswordService;
+        this.userPrincipalCache = userPrincipalCache;
+        this.passwordHashingService = passwordHashingService;
+        this.jwtService = jwtService;
+        this.refreshTokenService = refreshTokenService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.continuationExecutor = continuationExecutor;
+    }
+
+    // Pe pool-ul PasswordHashingService rulează doar hash-ul BCrypt; salvarea utilizatorului continuă pe alt executor
+    public CompletableFuture<Void> signup(UserDTO userDTO) {
+        return passwordHashingService.submit(PasswordHashingService.OPERATION_ENCODE, () -> passwordEncoder.encode(userDTO.getPassword()))
+                .thenAcceptAsync(encodedPassword -> saveNewUser(userDTO, encodedPassword), continuationExecutor);
+    }
+
+    private void saveNewUser(UserDTO userDTO, String encodedPassword) {
         User newUser = new User();
 
         newUser.setUsername(userDTO.getUsername());
-        newUser.setPassword(passwordEncoder.encode(userDTO.getPassword()));
+        newUser.setPassword(encodedPassword);
         newUser.setEmail(userDTO.getEmail());
 
 
@@ -40,18 +91,89 @@ public class AuthenticationService {
         }
 
         userRepository.save(newUser);
+        userPrincipalCache.invalidate(newUser.getUsername()); // Principalul vechi din cache nu mai este valid
     }
 
 
-    public User login(UserDTO userDTO) {
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        userDTO.getUsername(),
-                        userDTO.getPassword()
-                )
-        );
+    // Utilizatorul este citit pe firul cererii; pool-ul dedicat rulează doar verificarea BCrypt (matches)
+    public CompletableFuture<User> login(UserDTO userDTO) {
+        Optional<User> user = userRepository.findByUsername(userDTO.getUsername());
+
+        return passwordHashingService.submit(PasswordHashingService.OPERATION_VERIFY,
+                        () -> passwordEncoder.matches(userDTO.getPassword(),
+                                user.map(User::getPassword).orElseGet(this::userNotFoundEncodedPassword)))
+                .thenApplyAsync(matches -> {
+                    if (!matches || user.isEmpty()) {
+                        throw new BadCredentialsException("Bad credentials");
+                    }
+                    upgradePasswordIfNeeded(user.get(), userDTO.getPassword());
+                    return user.get();
+                }, continuationExecutor);
+    }
+
+    // Hash-urile salvate cu un cost mai mic decât cel configurat sunt refăcute după un login reușit.
+    // Dacă pool-ul este ocupat, refacerea este amânată până la următorul login.
+    private void upgradePasswordIfNeeded(User user, String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(user.getPassword())) {
+            return;
+        }
+        try {
+            passwordHashingService.submit(PasswordHashingService.OPERATION_ENCODE, () -> passwordEncoder.encode(rawPassword))
+                    .thenAcceptAsync(encodedPassword -> userDetailsPasswordService.updatePassword(user, encodedPassword), continuationExecutor);
+        } catch (AuthenticationBusyException e) {
+            // Se reîncearcă la următorul login
+        }
+    }
+
+    private String userNotFoundEncodedPassword() {
+        if (userNotFoundEncodedPassword == null) {
+            userNotFoundEncodedPassword = passwordEncoder.encode(USER_NOT_FOUND_PASSWORD);
+        }
+        return userNotFoundEncodedPassword;
+    }
+
+    // Access token de scurtă durată (verificat doar prin semnătură) plus un refresh token dintr-o familie nouă
+    public LoginResponse issueTokens(User user) {
+        return buildLoginResponse(user, refreshTokenService.issue(user.getId()));
+    }
+
+    /**
+     * Înlocuiește refresh token-ul primit cu unul nou și emite un access token nou.
+     * @throws InvalidRefreshTokenException dacă token-ul nu mai este valid.
+     */
+    public LoginResponse refresh(String refreshToken) {
+        RefreshTokenService.IssuedRefreshToken rotated = refreshTokenService.rotate(refreshToken);
+        User user = userRepository.findById(rotated.userId())
+                .orElseThrow(() -> new InvalidRefreshTokenException("Utilizatorul asociat refresh token-ului nu mai există."));
+        return buildLoginResponse(user, rotated);
+    }
+
+    /**
+     * Revocă sesiunea refresh token-ului și, dacă este trimis, access token-ul curent (după jti), ca acesta să nu
+     * mai fie acceptat până la expirare. Un access token deja expirat nu mai trebuie revocat.
+     */
+    public void logout(String refreshToken, String accessToken) {
+        refreshTokenService.revoke(refreshToken);
+        if (accessToken == null) {
+            return;
+        }
+        Claims claims;
+        try {
+            claims = jwtService.extractAllClaims(accessToken);
+        } catch (ExpiredJwtException e) {
+            return;
+        }
+        if (claims.getId() != null) {
+            tokenRevocationService.revokeToken(claims.getId(), claims.get(JwtServiceImpl.USER_ID_CLAIM, Long.class), claims.getExpiration());
+        }
+    }
 
-        return userRepository.findByUsername(userDTO.getUsername())
-                .orElseThrow();
+    private LoginResponse buildLoginResponse(User user, RefreshTokenService.IssuedRefreshToken refreshToken) {
+        LoginResponse loginResponse = new LoginResponse();
+        loginResponse.setToken(jwtService.generateToken(user));
+        loginResponse.setExpiresIn(jwtService.getExpirationTime());
+        loginResponse.setRefreshToken(refreshToken.token());
+        loginResponse.setRefreshExpiresIn(refreshToken.expiresIn());
+        return loginResponse;
     }
-}
\ No newline at end of file
+}
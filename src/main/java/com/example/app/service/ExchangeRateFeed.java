@@ -0,0 +1,251 @@
+package com.example.app.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Încarcă ratele de schimb dintr-un fișier .properties sau dintr-un director cu astfel de fișiere
+ * (ex: {@code USD=17.50}, 1 unitate din monedă = X LEI) și le reîncarcă la fiecare modificare, fără redeploy.
+ * Fiecare set nou este validat, salvat cu o versiune nouă în exchange_rate_snapshots și apoi publicat
+ * în {@link ExchangeRateService}. Un set invalid este ignorat, iar ratele curente rămân active.
+ */
+@Slf4j
+@Component
+public class ExchangeRateFeed {
+
+    private static final String BASE_CURRENCY = "LEI";
+    private static final String RATES_FILE_SUFFIX = ".properties";
+
+    private static final String FIND_LATEST_SQL = "SELECT version, rates FROM exchange_rate_snapshots ORDER BY version DESC LIMIT 1";
+    private static final String FIND_BY_VERSION_SQL = "SELECT rates FROM exchange_rate_snapshots WHERE version = ?";
+    private static final String NEXT_VERSION_SQL = "SELECT nextval('exchange_rate_snapshots_version_seq')";
+    private static final String INSERT_SNAPSHOT_SQL = "INSERT INTO exchange_rate_snapshots (version, rates, source, created_at) VALUES (?, ?, ?, ?)";
+
+    private final ExchangeRateService exchangeRateService;
+    private final JdbcTemplate jdbcTemplate;
+    private final String source;
+    private final long reloadDelayMillis;
+
+    private WatchService watchService;
+    private Thread watcherThread;
+
+    @Autowired
+    public ExchangeRateFeed(ExchangeRateService exchangeRateService,
+                            JdbcTemplate jdbcTemplate,
+                            @Value("${exchange-rates.source:}") String source,
+                            @Value("${exchange-rates.reload-delay:500}") long reloadDelayMillis) {
+        this.exchangeRateService = exchangeRateService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.source = source;
+        this.reloadDelayMillis = reloadDelayMillis;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (source == null || source.isBlank()) {
+            publishDefaults();
+            return;
+        }
+
+        Path sourcePath = Paths.get(source).toAbsolutePath();
+        if (!reload(sourcePath)) {
+            publishDefaults();
+        }
+
+        Path watchedDirectory = Files.isDirectory(sourcePath) ? sourcePath : sourcePath.getParent();
+        watchService = watchedDirectory.getFileSystem().newWatchService();
+        watchedDirectory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+
+        watcherThread = new Thread(() -> watch(sourcePath), "exchange-rate-feed");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close(); // Oprește și firul de supraveghere (ClosedWatchServiceException)
+        }
+    }
+
+    /**
+     * Reconstruiește un snapshot salvat anterior, pentru a reproduce conversia unei tranzacții din trecut.
+     */
+    public ExchangeRateSnapshot loadSnapshot(long version) {
+        List<String> rows = jdbcTemplate.queryForList(FIND_BY_VERSION_SQL, String.class, version);
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("Nu există un snapshot de rate cu versiunea " + version);
+        }
+        return ExchangeRateSnapshot.of(version, parseRates(new StringReader(rows.get(0)), "versiunea " + version));
+    }
+
+    private void watch(Path sourcePath) {
+        boolean sourceIsDirectory = Files.isDirectory(sourcePath);
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean relevant = containsRelevantEvent(key, sourcePath, sourceIsDirectory);
+                key.reset();
+                if (!relevant) {
+                    continue;
+                }
+
+                // Editoarele scriu adesea fișierul în mai mulți pași; se așteaptă ca evenimentele să se liniștească
+                Thread.sleep(reloadDelayMillis);
+                WatchKey pending;
+                while ((pending = watchService.poll()) != null) {
+                    pending.pollEvents();
+                    pending.reset();
+                }
+                reload(sourcePath);
+            }
+        } catch (ClosedWatchServiceException e) {
+            // Aplicația se oprește
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean containsRelevantEvent(WatchKey key, Path sourcePath, boolean sourceIsDirectory) {
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                relevant = true;
+                continue;
+            }
+            Path changed = (Path) event.context();
+            relevant |= sourceIsDirectory
+                    ? changed.toString().endsWith(RATES_FILE_SUFFIX)
+                    : changed.equals(sourcePath.getFileName());
+        }
+        return relevant;
+    }
+
+    private boolean reload(Path sourcePath) {
+        try {
+            publish(loadRates(sourcePath), sourcePath.toString());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ratele din {} au fost respinse, se păstrează versiunea {}: {}",
+                    sourcePath, exchangeRateService.getSnapshot().getVersion(), e.getMessage());
+            return false;
+        }
+    }
+
+    // Ca la reîncărcare, un eșec (ex: baza de date indisponibilă) nu oprește pornirea aplicației:
+    // rămân active ratele implicite din memorie (versiunea 0), până la următoarea publicare reușită
+    private void publishDefaults() {
+        try {
+            publish(exchangeRateService.getDefaultRatesToLEI(), "default");
+        } catch (RuntimeException e) {
+            log.warn("Ratele implicite nu au putut fi publicate, se folosește versiunea {}: {}",
+                    exchangeRateService.getSnapshot().getVersion(), e.getMessage());
+        }
+    }
+
+    private Map<String, BigDecimal> loadRates(Path sourcePath) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (Files.isDirectory(sourcePath)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(sourcePath, "*" + RATES_FILE_SUFFIX)) {
+                stream.forEach(files::add);
+            }
+            files.sort(null);
+        } else {
+            files.add(sourcePath);
+        }
+
+        Map<String, BigDecimal> rates = new TreeMap<>();
+        for (Path file : files) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                parseRates(reader, file.toString()).forEach((currency, rate) -> {
+                    if (rates.putIfAbsent(currency, rate) != null) {
+                        throw new IllegalArgumentException("Moneda " + currency + " este definită în mai multe fișiere.");
+                    }
+                });
+            }
+        }
+        return rates;
+    }
+
+    private Map<String, BigDecimal> parseRates(Reader reader, String origin) {
+        Properties properties = new Properties();
+        try {
+            properties.load(reader);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Ratele din " + origin + " nu pot fi citite: " + e.getMessage(), e);
+        }
+
+        Map<String, BigDecimal> rates = new TreeMap<>();
+        for (String currency : properties.stringPropertyNames()) {
+            String value = properties.getProperty(currency).trim();
+            try {
+                rates.put(currency.trim().toUpperCase(), new BigDecimal(value));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Rata pentru " + currency + " din " + origin + " nu este un număr: " + value);
+            }
+        }
+        return rates;
+    }
+
+    // Validează setul, îl salvează cu o versiune nouă (sau refolosește ultima versiune dacă ratele nu s-au schimbat)
+    // și abia apoi îl face vizibil transferurilor. Versiunea vine din secvență, deci este unică și între instanțe;
+    // două noduri care publică simultan același set pot crea două versiuni cu rate identice, fără conflict.
+    private synchronized void publish(Map<String, BigDecimal> ratesToLEI, String origin) {
+        Map<String, BigDecimal> rates = new TreeMap<>(ratesToLEI);
+        BigDecimal baseRate = rates.get(BASE_CURRENCY);
+        if (baseRate == null || baseRate.compareTo(BigDecimal.ONE) != 0) {
+            throw new IllegalArgumentException("Setul de rate trebuie să conțină " + BASE_CURRENCY + "=1.");
+        }
+        ExchangeRateSnapshot.of(0L, rates); // Validare completă înainte de a aloca o versiune
+
+        String serializedRates = serialize(rates);
+        List<Map<String, Object>> latest = jdbcTemplate.queryForList(FIND_LATEST_SQL);
+        long version;
+        if (!latest.isEmpty() && serializedRates.equals(latest.get(0).get("rates"))) {
+            version = ((Number) latest.get(0).get("version")).longValue();
+        } else {
+            version = jdbcTemplate.queryForObject(NEXT_VERSION_SQL, Long.class);
+            jdbcTemplate.update(INSERT_SNAPSHOT_SQL, version, serializedRates, origin, Timestamp.valueOf(LocalDateTime.now()));
+        }
+
+        exchangeRateService.publish(ExchangeRateSnapshot.of(version, rates));
+        log.info("Publicat setul de rate versiunea {} din {}: {}", version, origin, rates);
+    }
+
+    private String serialize(Map<String, BigDecimal> rates) {
+        return rates.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue().toPlainString())
+                .collect(Collectors.joining("\n"));
+    }
+}
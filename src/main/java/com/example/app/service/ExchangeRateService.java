@@ -2,8 +2,7 @@ package com.example.app.service;
 
 import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 
@@ -15,7 +14,7 @@ public class ExchangeRateService {
     // Pentru simplitate, vom defini ratele față de LEI.
     // 1 USD = X LEI, 1 EUR = Y LEI
     // Pentru a converti USD în EUR: USD -> LEI -> EUR
-    private static final Map<String, BigDecimal> ratesToLEI = new HashMap<>();
+    private static final Map<String, BigDecimal> DEFAULT_RATES_TO_LEI = new LinkedHashMap<>();
 
     static {
         // Acestea sunt rate de CUMPĂRARE pentru bancă (când banca cumpără valută de la client)
@@ -25,11 +24,16 @@ public class ExchangeRateService {
         // 1 USD = 17.50 LEI
         // 1 EUR = 19.00 LEI
         // 1 LEI = 1.00 LEI (pentru coerență)
-        ratesToLEI.put("USD", new BigDecimal("17.50"));
-        ratesToLEI.put("EUR", new BigDecimal("19.00"));
-        ratesToLEI.put("LEI", BigDecimal.ONE);
+        DEFAULT_RATES_TO_LEI.put("USD", new BigDecimal("17.50"));
+        DEFAULT_RATES_TO_LEI.put("EUR", new BigDecimal("19.00"));
+        DEFAULT_RATES_TO_LEI.put("LEI", BigDecimal.ONE);
     }
 
+    // Ratele curente, compilate într-un snapshot imutabil. O actualizare înlocuiește întregul snapshot,
+    // deci o conversie nu poate vedea niciodată un amestec de rate vechi și noi.
+    // Versiunea 0 sunt ratele implicite, folosite până când ExchangeRateFeed publică primul snapshot.
+    private volatile ExchangeRateSnapshot snapshot = ExchangeRateSnapshot.of(0L, DEFAULT_RATES_TO_LEI);
+
     /**
      * Convertește o sumă dintr-o monedă în alta.
      * @param amount Suma de convertit.
@@ -39,44 +43,36 @@ public class ExchangeRateService {
      * @throws IllegalArgumentException dacă monedele nu sunt suportate.
      */
     public BigDecimal convert(BigDecimal amount, String fromCurrency, String toCurrency) {
+        return convert(snapshot, amount, fromCurrency, toCurrency);
+    }
+
+    /**
+     * Convertește o sumă folosind un snapshot anume, ex: cel capturat la începutul unui transfer.
+     */
+    public BigDecimal convert(ExchangeRateSnapshot rates, BigDecimal amount, String fromCurrency, String toCurrency) {
         Objects.requireNonNull(amount, "Suma nu poate fi nulă");
         Objects.requireNonNull(fromCurrency, "Moneda sursă nu poate fi nulă");
         Objects.requireNonNull(toCurrency, "Moneda destinație nu poate fi nulă");
 
-        String fromUpper = fromCurrency.toUpperCase();
-        String toUpper = toCurrency.toUpperCase();
-
-        if (fromUpper.equals(toUpper)) {
+        if (fromCurrency.equalsIgnoreCase(toCurrency)) {
             return amount; // Nu e necesară conversia
         }
 
-        BigDecimal rateFrom = ratesToLEI.get(fromUpper);
-        BigDecimal rateTo = ratesToLEI.get(toUpper);
+        // Exemplu: 100 USD în EUR
+        // 100 USD * (17.50 LEI / 1 USD) = 1750 LEI
+        // 1750 LEI / (19.00 LEI / 1 EUR) = 1750 LEI * (1 EUR / 19.00 LEI) = 92.10 EUR
+        // Se calculează exact 100 * 17.50 / 19.00, cu o singură rotunjire la 2 zecimale.
+        int fromIndex = rates.indexOf(fromCurrency);
+        int toIndex = rates.indexOf(toCurrency);
 
-        if (rateFrom == null) {
+        if (fromIndex == ExchangeRateSnapshot.UNKNOWN_CURRENCY) {
             throw new IllegalArgumentException("Moneda sursă nesuportată pentru conversie: " + fromCurrency);
         }
-        if (rateTo == null) {
+        if (toIndex == ExchangeRateSnapshot.UNKNOWN_CURRENCY) {
             throw new IllegalArgumentException("Moneda destinație nesuportată pentru conversie: " + toCurrency);
         }
 
-        // Conversie: Suma în LEI = amount * rateFrom (dacă rateFrom este rata X Valută = 1 LEI)
-        // Sau, dacă ratele noastre sunt 1 VALUTĂ_STRĂINĂ = X LEI:
-        // amount_in_FROM_CURRENCY * (LEI / FROM_CURRENCY) / (LEI / TO_CURRENCY)
-        // = amount_in_FROM_CURRENCY * rate_FROM_to_LEI / rate_TO_to_LEI (dacă rateTo e 1 TO_CURRENCY = Z LEI)
-        // = amount_in_FROM_CURRENCY * rate_FROM_to_LEI * (1 / rate_TO_to_LEI)
-
-        // Exemplu: 100 USD în EUR
-        // 100 USD * (17.50 LEI / 1 USD) = 1750 LEI
-        // 1750 LEI / (19.00 LEI / 1 EUR) = 1750 LEI * (1 EUR / 19.00 LEI) = 92.10 EUR
-
-        BigDecimal amountInLEI = amount.multiply(rateFrom); // Convertește suma din fromCurrency în LEI
-        BigDecimal convertedAmount = amountInLEI.divide(rateTo, 2, RoundingMode.HALF_UP); // Convertește din LEI în toCurrency
-
-        System.out.printf("[ExchangeRateService] Converting %.2f %s to %s: %.2f %s (Rate LEI/%s=%.4f, Rate LEI/%s=%.4f)%n",
-                amount, fromUpper, toUpper, convertedAmount, toUpper, fromUpper, rateFrom, toUpper, rateTo);
-
-        return convertedAmount;
+        return rates.convert(amount, fromIndex, toIndex);
     }
 
     /**
@@ -86,23 +82,40 @@ public class ExchangeRateService {
      * @return Rata de schimb.
      */
     public BigDecimal getExchangeRate(String fromCurrency, String toCurrency) {
+        return getExchangeRate(snapshot, fromCurrency, toCurrency);
+    }
+
+    public BigDecimal getExchangeRate(ExchangeRateSnapshot rates, String fromCurrency, String toCurrency) {
         Objects.requireNonNull(fromCurrency, "Moneda sursă nu poate fi nulă");
         Objects.requireNonNull(toCurrency, "Moneda destinație nu poate fi nulă");
 
-        String fromUpper = fromCurrency.toUpperCase();
-        String toUpper = toCurrency.toUpperCase();
-
-        if (fromUpper.equals(toUpper)) {
+        if (fromCurrency.equalsIgnoreCase(toCurrency)) {
             return BigDecimal.ONE;
         }
 
-        BigDecimal rateFrom = ratesToLEI.get(fromUpper);
-        BigDecimal rateTo = ratesToLEI.get(toUpper);
+        int fromIndex = rates.indexOf(fromCurrency);
+        int toIndex = rates.indexOf(toCurrency);
 
-        if (rateFrom == null || rateTo == null) {
+        if (fromIndex == ExchangeRateSnapshot.UNKNOWN_CURRENCY || toIndex == ExchangeRateSnapshot.UNKNOWN_CURRENCY) {
             throw new IllegalArgumentException("Una dintre monede nu este suportată pentru obținerea ratei de schimb.");
         }
-        // Rata pentru 1 fromCurrency = X toCurrency este (rateFrom / rateTo)
-        return rateFrom.divide(rateTo, 4, RoundingMode.HALF_UP); // 4 zecimale pentru rate
+        // Rata pentru 1 fromCurrency = X toCurrency este (rateFrom / rateTo), cu 4 zecimale
+        return rates.rate(fromIndex, toIndex);
+    }
+
+    /**
+     * Înlocuiește atomic toate ratele. Transferurile deja pornite continuă cu snapshot-ul capturat la început.
+     */
+    public void publish(ExchangeRateSnapshot newSnapshot) {
+        snapshot = Objects.requireNonNull(newSnapshot, "Snapshot-ul nu poate fi nul");
+    }
+
+    public ExchangeRateSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    // Ratele implicite, folosite când nu este configurată nicio sursă externă
+    public Map<String, BigDecimal> getDefaultRatesToLEI() {
+        return Map.copyOf(DEFAULT_RATES_TO_LEI);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,122 @@
+package com.example.app.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Set imutabil de rate de schimb, compilat o singură dată la fiecare actualizare a ratelor.
+ * Codurile monedelor sunt mapate la indici mici, iar ratele afișate pentru toate perechile sunt calculate
+ * dinainte într-o matrice N×N. Sumele sunt convertite exact (sumă × rateFrom / rateTo, o singură rotunjire),
+ * ca rezultatul să nu depindă de precizia unui factor intermediar.
+ * Fiecare snapshot publicat are o versiune, salvată în tabela exchange_rate_snapshots și în fiecare DbTransaction.
+ */
+public final class ExchangeRateSnapshot {
+
+    public static final int UNKNOWN_CURRENCY = -1;
+
+    static final int DISPLAY_RATE_SCALE = 4;       // 4 zecimale pentru ratele afișate
+    static final int AMOUNT_SCALE = 2;
+
+    private final long version;
+    private final Map<String, Integer> currencyIndex;
+    private final String[] currencies;
+    private final BigDecimal[] ratesToLEI;
+    private final BigDecimal[][] displayRates;
+
+    private ExchangeRateSnapshot(long version, Map<String, BigDecimal> ratesToLEI) {
+        if (ratesToLEI.isEmpty()) {
+            throw new IllegalArgumentException("Setul de rate nu poate fi gol.");
+        }
+        this.version = version;
+        int size = ratesToLEI.size();
+        this.currencyIndex = new HashMap<>(size * 2);
+        this.currencies = new String[size];
+        this.ratesToLEI = new BigDecimal[size];
+
+        int index = 0;
+        for (Map.Entry<String, BigDecimal> entry : ratesToLEI.entrySet()) {
+            String currency = entry.getKey().toUpperCase();
+            BigDecimal rate = Objects.requireNonNull(entry.getValue(), "Rata pentru " + currency + " nu poate fi nulă");
+            if (rate.signum() <= 0) {
+                throw new IllegalArgumentException("Rata pentru " + currency + " trebuie să fie pozitivă: " + rate);
+            }
+            if (currencyIndex.putIfAbsent(currency, index) != null) {
+                throw new IllegalArgumentException("Moneda este definită de mai multe ori: " + currency);
+            }
+            currencies[index] = currency;
+            this.ratesToLEI[index] = rate;
+            index++;
+        }
+
+        this.displayRates = new BigDecimal[size][size];
+        for (int from = 0; from < size; from++) {
+            for (int to = 0; to < size; to++) {
+                // 1 'from' = (rateFrom / rateTo) 'to'
+                displayRates[from][to] = from == to
+                        ? BigDecimal.ONE
+                        : this.ratesToLEI[from].divide(this.ratesToLEI[to], DISPLAY_RATE_SCALE, RoundingMode.HALF_UP);
+            }
+        }
+    }
+
+    /**
+     * Construiește un snapshot din ratele exprimate în LEI (1 unitate din monedă = X LEI).
+     * @throws IllegalArgumentException dacă setul este gol, o rată lipsește, nu este pozitivă sau o monedă apare de două ori.
+     */
+    public static ExchangeRateSnapshot of(long version, Map<String, BigDecimal> ratesToLEI) {
+        Objects.requireNonNull(ratesToLEI, "Ratele nu pot fi nule");
+        return new ExchangeRateSnapshot(version, ratesToLEI);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return indicele monedei sau {@link #UNKNOWN_CURRENCY} dacă moneda nu este suportată.
+     */
+    public int indexOf(String currency) {
+        Integer index = currencyIndex.get(currency);
+        if (index == null) {
+            index = currencyIndex.get(currency.toUpperCase()); // Codurile sunt stocate cu majuscule
+        }
+        return index != null ? index : UNKNOWN_CURRENCY;
+    }
+
+    public String currencyAt(int index) {
+        return currencies[index];
+    }
+
+    public int size() {
+        return currencies.length;
+    }
+
+    public BigDecimal rateToLEI(int index) {
+        return ratesToLEI[index];
+    }
+
+    // Suma convertită, rotunjită la 2 zecimale
+    public BigDecimal convert(BigDecimal amount, int fromIndex, int toIndex) {
+        if (fromIndex == toIndex) {
+            return amount;
+        }
+        return amount.multiply(ratesToLEI[fromIndex]).divide(ratesToLEI[toIndex], AMOUNT_SCALE, RoundingMode.HALF_UP);
+    }
+
+    // Rata pentru 1 unitate din moneda sursă, cu 4 zecimale
+    public BigDecimal rate(int fromIndex, int toIndex) {
+        return displayRates[fromIndex][toIndex];
+    }
+
+    public Map<String, BigDecimal> ratesToLEI() {
+        Map<String, BigDecimal> rates = new LinkedHashMap<>();
+        for (int i = 0; i < currencies.length; i++) {
+            rates.put(currencies[i], ratesToLEI[i]);
+        }
+        return rates;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.app.service;
+
+import com.example.app.dto.transfer.TransferType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Cotație emisă de {@link FxQuoteService}: rata și comisionul rămân fixe până la expirare,
+ * iar snapshot-ul de rate folosit la calcul este păstrat pentru înregistrarea tranzacției.
+ */
+public record FxQuote(String quoteId,
+                      Long userId,
+                      TransferType transferType,
+                      BigDecimal amount,
+                      String currency,
+                      String sourceCurrency,
+                      BigDecimal rate,
+                      BigDecimal fee,
+                      BigDecimal totalAmount,
+                      BigDecimal debitAmount,
+                      ExchangeRateSnapshot rates,
+                      LocalDateTime expiresAt) {
+}
@@ -0,0 +1,98 @@
+package com.example.app.service;
+
+import com.example.app.dto.fx.FxQuoteRequestDTO;
+import com.example.app.dto.fx.FxQuoteResponseDTO;
+import com.example.app.dto.transfer.TransferType;
+import com.example.app.exception.CurrencyConversionException;
+import com.example.app.exception.InvalidTransferException;
+import com.example.app.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Emite cotații valutare pentru transferurile intrabancare și interbancare: clientul află suma debitată
+// și comisionul înainte de transfer, iar transferul trimis cu quoteId folosește exact aceste valori.
+// Cotațiile sunt ținute doar în memorie, într-un cache limitat care le elimină la expirare.
+@Service
+public class FxQuoteService {
+
+    private final ExchangeRateService exchangeRateService;
+    private final UserRepository userRepository;
+    private final Duration ttl;
+    private final Cache<String, FxQuote> quotes;
+
+    @Autowired
+    public FxQuoteService(ExchangeRateService exchangeRateService,
+                          UserRepository userRepository,
+                          @Value("${fx.quote.ttl:30000}") long ttlMillis,
+                          @Value("${fx.quote.cache-max-size:100000}") long cacheMaxSize) {
+        this.exchangeRateService = exchangeRateService;
+        this.userRepository = userRepository;
+        this.ttl = Duration.ofMillis(ttlMillis);
+        this.quotes = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public FxQuoteResponseDTO createQuote(String currentUsername, FxQuoteRequestDTO request) {
+        if (request.getTransferType() == TransferType.OWN_ACCOUNT) {
+            throw new InvalidTransferException("Cotațiile sunt disponibile doar pentru transferurile intrabancare și interbancare.");
+        }
+        Long userId = userRepository.findIdByUsername(currentUsername)
+                .orElseThrow(() -> new UsernameNotFoundException("Utilizatorul curent nu a fost găsit: " + currentUsername));
+
+        String transferCurrency = request.getCurrency().toUpperCase();
+        String sourceCurrency = request.getSourceCurrency().toUpperCase();
+        BigDecimal fee = request.getTransferType() == TransferType.DOMESTIC_BANK
+                ? TransferService.calculateDomesticTransferFee(request.getAmount())
+                : BigDecimal.ZERO;
+        BigDecimal totalAmount = request.getAmount().add(fee);
+
+        ExchangeRateSnapshot rates = exchangeRateService.getSnapshot();
+        BigDecimal rate;
+        BigDecimal debitAmount;
+        try {
+            rate = exchangeRateService.getExchangeRate(rates, transferCurrency, sourceCurrency);
+            debitAmount = exchangeRateService.convert(rates, totalAmount, transferCurrency, sourceCurrency);
+        } catch (IllegalArgumentException e) {
+            throw new CurrencyConversionException("Cotația nu a putut fi calculată: " + e.getMessage());
+        }
+
+        FxQuote quote = new FxQuote(UUID.randomUUID().toString(), userId, request.getTransferType(),
+                request.getAmount(), transferCurrency, sourceCurrency, rate, fee, totalAmount, debitAmount,
+                rates, LocalDateTime.now().plus(ttl));
+        quotes.put(quote.quoteId(), quote);
+
+        return new FxQuoteResponseDTO(quote.quoteId(), quote.transferType(), quote.amount(), quote.currency(),
+                quote.sourceCurrency(), quote.rate(), quote.fee(), quote.totalAmount(), quote.debitAmount(),
+                rates.getVersion(), quote.expiresAt());
+    }
+
+    /**
+     * Returnează cotația doar dacă nu a expirat și corespunde exact transferului cerut.
+     * @throws InvalidTransferException dacă cotația lipsește, a expirat sau a fost emisă pentru alt transfer.
+     */
+    public FxQuote getQuote(String quoteId, Long userId, TransferType transferType,
+                            BigDecimal amount, String currency, String sourceCurrency) {
+        FxQuote quote = quotes.getIfPresent(quoteId);
+        if (quote == null || quote.expiresAt().isBefore(LocalDateTime.now()) || !quote.userId().equals(userId)) {
+            throw new InvalidTransferException("Cotația " + quoteId + " nu există sau a expirat. Solicitați o cotație nouă.");
+        }
+        if (quote.transferType() != transferType
+                || quote.amount().compareTo(amount) != 0
+                || !quote.currency().equalsIgnoreCase(currency)
+                || !quote.sourceCurrency().equalsIgnoreCase(sourceCurrency)) {
+            throw new InvalidTransferException("Cotația " + quoteId + " a fost emisă pentru alt tip de transfer, altă sumă sau alte monede.");
+        }
+        return quote;
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.app.service;
+
+import com.example.app.exception.IdempotencyKeyInProgressException;
+import com.example.app.exception.IdempotencyKeyMismatchException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+// Păstrează răspunsurile operațiilor trimise cu header-ul Idempotency-Key, astfel încât o cerere retrimisă
+// (timeout la client, retry) să primească același răspuns fără a executa din nou transferul.
+// Cheile sunt stocate în tabela idempotency_keys (unice per utilizator, cu TTL); răspunsurile finalizate
+// sunt ținute și într-un cache local, ca o cerere repetată să nu ajungă deloc la baza de date.
+// Operația își marchează cheia ca finalizată în propria tranzacție (completeInTransaction), deci o cheie rămasă
+// IN_PROGRESS arată că operația nu a fost confirmată. De aceea rezervarea unei chei IN_PROGRESS este scurtă
+// (idempotency.lease): după o cădere a procesului, clientul poate reîncerca fără să aștepte TTL-ul răspunsului.
+@Service
+public class IdempotencyService {
+
+    private static final String STATUS_IN_PROGRESS = "IN_PROGRESS";
+    private static final String STATUS_COMPLETED = "COMPLETED";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    // Inserează cheia; dacă există deja, o preia doar dacă a expirat (răspuns vechi sau rezervare IN_PROGRESS expirată).
+    // Întoarce 1 dacă cererea curentă deține cheia.
+    private static final String CLAIM_KEY_SQL = "INSERT INTO idempotency_keys " +
+            "(username, idempotency_key, request_hash, status, claim_token, created_at, expires_at) VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (username, idempotency_key) DO UPDATE SET " +
+            "request_hash = EXCLUDED.request_hash, status = EXCLUDED.status, response_body = NULL, " +
+            "claim_token = EXCLUDED.claim_token, created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at " +
+            "WHERE idempotency_keys.expires_at < EXCLUDED.created_at";
+    // Doar cererea care deține încă rezervarea (același claim_token) poate finaliza sau elibera cheia
+    private static final String COMPLETE_KEY_SQL = "UPDATE idempotency_keys SET status = ?, response_body = ?, expires_at = ? " +
+            "WHERE username = ? AND idempotency_key = ? AND claim_token = ?";
+    private static final String RELEASE_KEY_SQL = "DELETE FROM idempotency_keys " +
+            "WHERE username = ? AND idempotency_key = ? AND claim_token = ? AND status = ?";
+    private static final String FIND_KEY_SQL = "SELECT request_hash, status, response_body FROM idempotency_keys " +
+            "WHERE username = ? AND idempotency_key = ?";
+    private static final String PURGE_EXPIRED_SQL = "DELETE FROM idempotency_keys WHERE id IN " +
+            "(SELECT id FROM idempotency_keys WHERE expires_at < ? LIMIT ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration lease;
+    private final int purgeBatchSize;
+    private final Cache<CacheKey, StoredResponse> completedResponses;
+    private final ThreadLocal<PendingKey> pendingKey = new ThreadLocal<>(); // Cheia deținută de cererea curentă
+
+    @Autowired
+    public IdempotencyService(JdbcTemplate jdbcTemplate,
+                              ObjectMapper objectMapper,
+                              @Value("${idempotency.ttl:86400000}") long ttlMillis,
+                              @Value("${idempotency.lease:60000}") long leaseMillis,
+                              @Value("${idempotency.cache-max-size:10000}") long cacheMaxSize,
+                              @Value("${idempotency.purge-batch-size:1000}") int purgeBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofMillis(ttlMillis);
+        this.lease = Duration.ofMillis(leaseMillis);
+        this.purgeBatchSize = purgeBatchSize;
+        this.completedResponses = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Execută operația o singură dată pentru perechea (utilizator, cheie). Fără cheie, operația este executată direct.
+     * O cheie refolosită cu alt conținut al cererii este respinsă, la fel și una a cărei cerere inițială rulează încă.
+     * Dacă operația eșuează, cheia este eliberată, ca clientul să poată reîncerca. Dacă procesul cade înainte,
+     * cheia rămâne rezervată doar până la expirarea rezervării (idempotency.lease).
+     */
+    public <T> T execute(String username, String idempotencyKey, String operation, Object request,
+                         Class<T> responseType, Supplier<T> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key nu poate depăși " + MAX_KEY_LENGTH + " caractere.");
+        }
+
+        CacheKey cacheKey = new CacheKey(username, idempotencyKey);
+        String requestHash = hashRequest(operation, request);
+
+        StoredResponse cached = completedResponses.getIfPresent(cacheKey);
+        if (cached != null) {
+            return replay(cached, requestHash, responseType);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        String claimToken = UUID.randomUUID().toString();
+        int claimed = jdbcTemplate.update(CLAIM_KEY_SQL, username, idempotencyKey, requestHash, STATUS_IN_PROGRESS,
+                claimToken, Timestamp.valueOf(now), Timestamp.valueOf(now.plus(lease)));
+        if (claimed == 0) {
+            return replay(findStoredResponse(cacheKey), requestHash, responseType);
+        }
+
+        PendingKey pending = new PendingKey(cacheKey, claimToken);
+        T response;
+        pendingKey.set(pending);
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            // Doar o cheie rămasă IN_PROGRESS este ștearsă; una finalizată într-o tranzacție confirmată rămâne
+            jdbcTemplate.update(RELEASE_KEY_SQL, username, idempotencyKey, claimToken, STATUS_IN_PROGRESS);
+            throw e;
+        } finally {
+            pendingKey.remove();
+        }
+
+        String responseBody = toJson(response);
+        if (!pending.completed) {
+            // Operația nu și-a marcat cheia în propria tranzacție
+            updateCompleted(pending, responseBody);
+        }
+        completedResponses.put(cacheKey, new StoredResponse(requestHash, STATUS_COMPLETED, responseBody));
+        return response;
+    }
+
+    /**
+     * Apelat de operație la sfârșitul tranzacției ei: salvează răspunsul și marchează cheia ca finalizată în aceeași
+     * tranzacție, deci cheia și efectele operației sunt confirmate (sau anulate) împreună. Fără o cheie activă
+     * pe firul curent, nu face nimic. La o reîncercare a tranzacției, răspunsul este suprascris de noua încercare.
+     * @throws IdempotencyKeyInProgressException dacă rezervarea a expirat și cheia a fost preluată de altă cerere;
+     * tranzacția operației este anulată, deci operația rămâne aplicată o singură dată.
+     */
+    public <T> T completeInTransaction(T response) {
+        PendingKey pending = pendingKey.get();
+        if (pending != null) {
+            if (updateCompleted(pending, toJson(response)) == 0) {
+                throw new IdempotencyKeyInProgressException("Rezervarea pentru acest Idempotency-Key a expirat și a fost preluată de o altă cerere.");
+            }
+            pending.completed = true;
+        }
+        return response;
+    }
+
+    private int updateCompleted(PendingKey pending, String responseBody) {
+        return jdbcTemplate.update(COMPLETE_KEY_SQL, STATUS_COMPLETED, responseBody,
+                Timestamp.valueOf(LocalDateTime.now().plus(ttl)),
+                pending.cacheKey.username(), pending.cacheKey.idempotencyKey(), pending.claimToken);
+    }
+
+    // Șterge cheile expirate în loturi mici, ca să nu țină blocări lungi pe tabelă
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval:600000}")
+    public void purgeExpiredKeys() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(PURGE_EXPIRED_SQL, now, purgeBatchSize);
+        } while (deleted == purgeBatchSize);
+    }
+
+    private StoredResponse findStoredResponse(CacheKey cacheKey) {
+        List<StoredResponse> rows = jdbcTemplate.query(FIND_KEY_SQL,
+                (rs, rowNum) -> new StoredResponse(rs.getString("request_hash"), rs.getString("status"), rs.getString("response_body")),
+                cacheKey.username(), cacheKey.idempotencyKey());
+        if (rows.isEmpty()) {
+            // Cererea care deținea cheia a eșuat și a eliberat-o între timp
+            throw new IdempotencyKeyInProgressException("Cererea cu acest Idempotency-Key nu a fost finalizată. Reîncercați.");
+        }
+        StoredResponse stored = rows.get(0);
+        if (STATUS_COMPLETED.equals(stored.status())) {
+            completedResponses.put(cacheKey, stored);
+        }
+        return stored;
+    }
+
+    private <T> T replay(StoredResponse stored, String requestHash, Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyMismatchException("Idempotency-Key a fost deja folosit pentru o cerere diferită.");
+        }
+        if (!STATUS_COMPLETED.equals(stored.status())) {
+            throw new IdempotencyKeyInProgressException("O cerere cu același Idempotency-Key este încă în curs de procesare.");
+        }
+        try {
+            return objectMapper.readValue(stored.responseBody(), responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Răspunsul salvat pentru Idempotency-Key nu poate fi citit.", e);
+        }
+    }
+
+    private String hashRequest(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(toJson(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 nu este disponibil.", e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Obiectul nu poate fi serializat pentru Idempotency-Key.", e);
+        }
+    }
+
+    private record CacheKey(String username, String idempotencyKey) {
+    }
+
+    private record StoredResponse(String requestHash, String status, String responseBody) {
+    }
+
+    private static final class PendingKey {
+        private final CacheKey cacheKey;
+        private final String claimToken;
+        private boolean completed;
+
+        private PendingKey(CacheKey cacheKey, String claimToken) {
+            this.cacheKey = cacheKey;
+            this.claimToken = claimToken;
+        }
+    }
+}
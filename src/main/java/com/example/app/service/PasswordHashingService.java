@@ -0,0 +1,71 @@
+package com.example.app.service;
+
+import com.example.app.exception.AuthenticationBusyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Rulează operațiile BCrypt (verificare la login, hash la înregistrare) pe un pool dedicat și limitat,
+// ca un val de autentificări să nu ocupe firele Tomcat de care au nevoie transferurile.
+// Când coada este plină, cererea este respinsă imediat (503) în loc să aștepte.
+// Metrici: auth.password.hashing (latența, pe operație) și executor.* cu name=passwordHashing (coadă, fire active).
+@Service
+public class PasswordHashingService {
+
+    public static final String OPERATION_VERIFY = "verify";
+    public static final String OPERATION_ENCODE = "encode";
+
+    private final ThreadPoolExecutor executor;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public PasswordHashingService(MeterRegistry meterRegistry,
+                                  @Value("${security.password-hashing.threads:0}") int threads,
+                                  @Value("${security.password-hashing.queue-capacity:100}") int queueCapacity) {
+        this.meterRegistry = meterRegistry;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "passwordHashing", List.of());
+    }
+
+    /**
+     * Programează operația pe pool-ul dedicat și măsoară durata ei.
+     * @throws AuthenticationBusyException dacă pool-ul și coada sunt pline.
+     */
+    public <T> CompletableFuture<T> submit(String operation, Supplier<T> task) {
+        Timer timer = Timer.builder("auth.password.hashing")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        try {
+            return CompletableFuture.supplyAsync(() -> timer.record(task), executor);
+        } catch (RejectedExecutionException e) {
+            throw new AuthenticationBusyException("Serviciul de autentificare este suprasolicitat. Reîncercați în câteva secunde.");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
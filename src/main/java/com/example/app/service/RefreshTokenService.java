@@ -0,0 +1,157 @@
+package com.example.app.service;
+
+import com.example.app.exception.InvalidRefreshTokenException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+// Refresh token-urile active, scrise imediat în tabela refresh_tokens și ținute într-un cache limitat ca dimensiune
+// (statistici Micrometer sub numele "refreshTokens"). Token-urile folosite nu rămân în cache: reutilizarea lor
+// este detectată din baza de date. Sursa de adevăr rămâne tabela.
+// Token-ul brut este trimis doar clientului; aici și în baza de date apare numai digest-ul lui.
+// La fiecare folosire token-ul este înlocuit (rotație); reutilizarea unui token deja folosit
+// revocă toate token-urile din aceeași familie (token furat sau client compromis).
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private static final String INSERT_SQL = "INSERT INTO refresh_tokens (token_hash, user_id, family_id, created_at, expires_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String FIND_BY_HASH_SQL = "SELECT token_hash, user_id, family_id, expires_at, used_at FROM refresh_tokens WHERE token_hash = ?";
+    private static final String MARK_USED_SQL = "UPDATE refresh_tokens SET used_at = ? WHERE token_hash = ? AND used_at IS NULL";
+    private static final String DELETE_FAMILY_SQL = "DELETE FROM refresh_tokens WHERE family_id = ?";
+    private static final String PURGE_EXPIRED_SQL = "DELETE FROM refresh_tokens WHERE expires_at <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration expiration;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final Cache<String, RefreshToken> tokens;
+
+    @Autowired
+    public RefreshTokenService(JdbcTemplate jdbcTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${jwt.refresh-token.expiration-time:2592000000}") long expirationMillis,
+                               @Value("${jwt.refresh-token.cache-max-size:100000}") long cacheMaxSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.expiration = Duration.ofMillis(expirationMillis);
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(expiration)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tokens, "refreshTokens");
+    }
+
+    // Token-ul brut și durata lui de viață, returnate clientului o singură dată
+    public record IssuedRefreshToken(Long userId, String token, long expiresIn) {
+    }
+
+    private record RefreshToken(String tokenHash, Long userId, String familyId, Instant expiresAt, Instant usedAt) {
+    }
+
+    // Emite primul token dintr-o familie nouă (la login)
+    public IssuedRefreshToken issue(Long userId) {
+        return issue(userId, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Consumă token-ul primit și emite altul din aceeași familie.
+     * @throws InvalidRefreshTokenException dacă token-ul nu există, a expirat, a fost revocat sau a fost deja folosit.
+     */
+    public IssuedRefreshToken rotate(String rawToken) {
+        String tokenHash = hash(rawToken);
+        RefreshToken current = find(tokenHash);
+        Instant now = Instant.now();
+        if (current == null || !current.expiresAt().isAfter(now)) {
+            tokens.invalidate(tokenHash);
+            throw new InvalidRefreshTokenException("Refresh token-ul nu este valid sau a expirat. Autentificați-vă din nou.");
+        }
+
+        // Actualizarea condiționată decide între cereri concurente (și între instanțe) care folosește token-ul
+        if (current.usedAt() != null || jdbcTemplate.update(MARK_USED_SQL, Timestamp.from(now), tokenHash) == 0) {
+            revokeFamily(current.familyId());
+            throw new InvalidRefreshTokenException("Refresh token-ul a fost deja folosit. Sesiunea a fost închisă din motive de securitate.");
+        }
+        tokens.invalidate(tokenHash); // O nouă prezentare a token-ului este citită din DB (used_at setat) și revocă familia
+
+        return issue(current.userId(), current.familyId());
+    }
+
+    // Închide sesiunea din care face parte token-ul (logout). Un token necunoscut este ignorat.
+    public void revoke(String rawToken) {
+        RefreshToken current = find(hash(rawToken));
+        if (current != null) {
+            revokeFamily(current.familyId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-token.purge-interval:3600000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        jdbcTemplate.update(PURGE_EXPIRED_SQL, Timestamp.from(now));
+        tokens.asMap().values().removeIf(token -> !token.expiresAt().isAfter(now));
+    }
+
+    private IssuedRefreshToken issue(Long userId, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        Instant now = Instant.now();
+        RefreshToken token = new RefreshToken(hash(rawToken), userId, familyId, now.plus(expiration), null);
+        jdbcTemplate.update(INSERT_SQL, token.tokenHash(), userId, familyId, Timestamp.from(now), Timestamp.from(token.expiresAt()));
+        tokens.put(token.tokenHash(), token);
+        return new IssuedRefreshToken(userId, rawToken, expiration.toMillis());
+    }
+
+    private void revokeFamily(String familyId) {
+        jdbcTemplate.update(DELETE_FAMILY_SQL, familyId);
+        tokens.asMap().values().removeIf(token -> token.familyId().equals(familyId));
+    }
+
+    // Token-urile emise de alte instanțe (sau eliminate din cache) sunt citite din baza de date.
+    // Un token folosit sau revocat pe altă instanță este detectat de actualizarea condiționată din rotate().
+    private RefreshToken find(String tokenHash) {
+        RefreshToken cached = tokens.getIfPresent(tokenHash);
+        if (cached != null) {
+            return cached;
+        }
+        List<RefreshToken> rows = jdbcTemplate.query(FIND_BY_HASH_SQL, (rs, rowNum) -> {
+            Timestamp usedAt = rs.getTimestamp("used_at");
+            return new RefreshToken(rs.getString("token_hash"), rs.getLong("user_id"), rs.getString("family_id"),
+                    rs.getTimestamp("expires_at").toInstant(), usedAt != null ? usedAt.toInstant() : null);
+        }, tokenHash);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        tokens.put(tokenHash, rows.get(0));
+        return rows.get(0);
+    }
+
+    private String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 nu este disponibil.", e);
+        }
+    }
+}
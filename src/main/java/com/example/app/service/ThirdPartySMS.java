@@ -1,7 +1,10 @@
 package com.example.app.service;
 
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
 public class ThirdPartySMS {
     public void sendSMS(String message, String phoneNumber) {
-        System.out.println("Trimite SMS către " + phoneNumber + ": " + message);
+        log.info("Trimite SMS către {}: {}", phoneNumber, message);
     }
 }
\ No newline at end of file
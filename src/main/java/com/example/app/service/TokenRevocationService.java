@@ -0,0 +1,83 @@
+package com.example.app.service;
+
+import com.example.app.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+// Access token-urile revocate înainte de expirare (ex: la logout), identificate prin jti și ținute integral în memorie,
+// ca verificarea din JwtAuthenticationFilter să nu acceseze baza de date. Access token-urile trăiesc câteva minute,
+// deci setul conține doar token-urile revocate în acest interval. Sursa de adevăr este tabela revoked_tokens,
+// reîncărcată periodic, astfel încât revocările făcute de alte instanțe ajung și aici după cel mult un interval.
+@Service
+public class TokenRevocationService {
+
+    private static final double BLOOM_FALSE_POSITIVE_RATE = 0.01;
+
+    private static final String FIND_ACTIVE_SQL = "SELECT jti FROM revoked_tokens WHERE jti IS NOT NULL AND expires_at > ?";
+    private static final String INSERT_TOKEN_SQL = "INSERT INTO revoked_tokens (jti, user_id, revoked_at, expires_at) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (jti) DO NOTHING";
+    private static final String PURGE_EXPIRED_SQL = "DELETE FROM revoked_tokens WHERE expires_at <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long jwtExpiration;
+
+    private volatile RevocationSet revocations = RevocationSet.empty();
+
+    @Autowired
+    public TokenRevocationService(JdbcTemplate jdbcTemplate,
+                                  @Value("${jwt.expiration-time}") long jwtExpiration) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jwtExpiration = jwtExpiration;
+    }
+
+    public boolean isRevoked(String jti) {
+        RevocationSet current = revocations;
+        return jti != null && current.jtiFilter().mightContain(jti) && current.jtis().contains(jti);
+    }
+
+    // Revocă un singur access token; rândul este șters după expirarea token-ului
+    public void revokeToken(String jti, Long userId, Date expiresAt) {
+        if (jti == null) {
+            throw new IllegalArgumentException("Token-ul nu are identificator (jti) și nu poate fi revocat individual.");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiration = expiresAt != null
+                ? LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault())
+                : now.plus(Duration.ofMillis(jwtExpiration));
+        jdbcTemplate.update(INSERT_TOKEN_SQL, jti, userId, Timestamp.valueOf(now), Timestamp.valueOf(expiration));
+        refresh();
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${security.revocation.refresh-interval:30000}")
+    public void refresh() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(PURGE_EXPIRED_SQL, now);
+
+        Set<String> jtis = new HashSet<>();
+        jdbcTemplate.query(FIND_ACTIVE_SQL, rs -> {
+            jtis.add(rs.getString("jti"));
+        }, now);
+
+        revocations = new RevocationSet(BloomFilter.of(jtis, BLOOM_FALSE_POSITIVE_RATE), Set.copyOf(jtis));
+    }
+
+    // Filtrul Bloom răspunde rapid pentru token-urile nerevocate (cazul obișnuit); setul exact elimină fals-pozitivele
+    private record RevocationSet(BloomFilter jtiFilter, Set<String> jtis) {
+        static RevocationSet empty() {
+            return new RevocationSet(BloomFilter.of(Set.of(), BLOOM_FALSE_POSITIVE_RATE), Set.of());
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.app.service;
+
+import com.example.app.repository.DbAccountRepository;
+import com.example.app.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Exportă istoricul tranzacțiilor unui utilizator direct din cursorul JDBC în răspunsul HTTP.
+// Rândurile sunt citite în loturi de fetch-size (cursor pe server) și scrise imediat, fără liste intermediare,
+// deci memoria folosită nu depinde de lungimea istoricului.
+@Service
+public class TransactionExportService {
+
+    public enum ExportFormat {
+        CSV("csv", new MediaType("text", "csv", StandardCharsets.UTF_8)),
+        NDJSON("ndjson", new MediaType("application", "x-ndjson", StandardCharsets.UTF_8));
+
+        private final String extension;
+        private final MediaType mediaType;
+
+        ExportFormat(String extension, MediaType mediaType) {
+            this.extension = extension;
+            this.mediaType = mediaType;
+        }
+
+        public String getExtension() { return extension; }
+        public MediaType getMediaType() { return mediaType; }
+
+        public static ExportFormat from(String value) {
+            for (ExportFormat format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Format de export necunoscut: " + value + ". Valori acceptate: csv, ndjson.");
+        }
+    }
+
+    private static final String CSV_HEADER = "id,fromAccountNumber,toAccountNumber,amount,currency,description,timestamp,transactionType\n";
+    private static final String EXTERNAL_ACCOUNT = "EXTERNAL";
+
+    // LEFT JOIN: tranzacțiile cu o parte externă (depuneri, retrageri) apar și ele în export.
+    // Lunile arhivate (archive.db_transactions, vezi TransactionPartitionMaintenance) sunt incluse: ele lipsesc
+    // din istoricul paginat, dar exportul acoperă tot istoricul. Filtrul pe timestamp elimină partițiile din afara intervalului.
+    // Conturile utilizatorului sunt rezolvate înainte, ca în istoricul paginat; filtrul pe from/to_account_id ajunge
+    // în fiecare ramură a UNION ALL și folosește indecșii acestor coloane, fără join pe db_accounts pentru filtrare.
+    private static final String TRANSACTION_COLUMNS = "id, from_account_id, to_account_id, amount, currency, description, timestamp, transaction_type";
+    private static final String EXPORT_SQL = "SELECT t.id, fa.account_number AS from_account_number, ta.account_number AS to_account_number, " +
+            "t.amount, t.currency, t.description, t.timestamp, t.transaction_type " +
+            "FROM (SELECT " + TRANSACTION_COLUMNS + " FROM public.db_transactions " +
+            "UNION ALL SELECT " + TRANSACTION_COLUMNS + " FROM archive.db_transactions) t " +
+            "LEFT JOIN db_accounts fa ON fa.id = t.from_account_id " +
+            "LEFT JOIN db_accounts ta ON ta.id = t.to_account_id " +
+            "WHERE (t.from_account_id = ANY(?) OR t.to_account_id = ANY(?)) AND t.timestamp >= ? AND t.timestamp < ? " +
+            "ORDER BY t.timestamp, t.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final DbAccountRepository dbAccountRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate exportTransaction;
+    private final int fetchSize;
+
+    @Autowired
+    public TransactionExportService(JdbcTemplate jdbcTemplate,
+                                    UserRepository userRepository,
+                                    DbAccountRepository dbAccountRepository,
+                                    ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${transactions.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userRepository = userRepository;
+        this.dbAccountRepository = dbAccountRepository;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+
+        // Driver-ul PostgreSQL folosește un cursor pe server (fetch size respectat) doar cu autocommit dezactivat
+        this.exportTransaction = new TransactionTemplate(transactionManager);
+        this.exportTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Pregătește exportul pentru intervalul [from, to] (zile incluse; oricare poate lipsi).
+     * Utilizatorul este verificat imediat, iar rândurile sunt citite abia când răspunsul este scris.
+     */
+    public StreamingResponseBody export(String username, ExportFormat format, LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Data de început nu poate fi după data de sfârșit.");
+        }
+        Long userId = userRepository.findIdByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("Utilizator negăsit: " + username));
+        List<Long> accountIds = dbAccountRepository.findIdsByUserId(userId);
+        Timestamp fromTimestamp = Timestamp.valueOf(from != null ? from.atStartOfDay() : LocalDateTime.of(1970, 1, 1, 0, 0));
+        Timestamp toTimestamp = Timestamp.valueOf(to != null ? to.plusDays(1).atStartOfDay() : LocalDateTime.of(9999, 12, 31, 0, 0));
+
+        return outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            RowCallbackHandler rowWriter = format == ExportFormat.CSV ? csvRowWriter(writer) : ndjsonRowWriter(writer);
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+            }
+            if (accountIds.isEmpty()) {
+                writer.flush(); // Fără conturi nu există tranzacții; rămâne doar antetul CSV
+                return;
+            }
+            try {
+                exportTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(fetchSize);
+                    Array accountIdArray = connection.createArrayOf("bigint", accountIds.toArray());
+                    statement.setArray(1, accountIdArray);
+                    statement.setArray(2, accountIdArray);
+                    statement.setTimestamp(3, fromTimestamp);
+                    statement.setTimestamp(4, toTimestamp);
+                    return statement;
+                }, rowWriter));
+            } catch (UncheckedIOException e) {
+                throw e.getCause(); // Clientul a închis conexiunea; tranzacția de citire a fost deja anulată
+            }
+            writer.flush();
+        };
+    }
+
+    private RowCallbackHandler csvRowWriter(Writer writer) {
+        return rs -> {
+            try {
+                writer.write(String.valueOf(rs.getLong("id")));
+                writer.write(',');
+                writer.write(csv(accountNumber(rs, "from_account_number")));
+                writer.write(',');
+                writer.write(csv(accountNumber(rs, "to_account_number")));
+                writer.write(',');
+                writer.write(rs.getBigDecimal("amount").toPlainString());
+                writer.write(',');
+                writer.write(csv(rs.getString("currency")));
+                writer.write(',');
+                writer.write(csv(rs.getString("description")));
+                writer.write(',');
+                writer.write(rs.getTimestamp("timestamp").toLocalDateTime().toString());
+                writer.write(',');
+                writer.write(csv(rs.getString("transaction_type")));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    private RowCallbackHandler ndjsonRowWriter(Writer writer) {
+        return rs -> {
+            try {
+                // Generatorul nu închide writer-ul comun; fiecare rând devine un obiect JSON pe o linie
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)
+                        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartObject();
+                generator.writeNumberField("id", rs.getLong("id"));
+                generator.writeStringField("fromAccountNumber", accountNumber(rs, "from_account_number"));
+                generator.writeStringField("toAccountNumber", accountNumber(rs, "to_account_number"));
+                generator.writeNumberField("amount", rs.getBigDecimal("amount"));
+                generator.writeStringField("currency", rs.getString("currency"));
+                generator.writeStringField("description", rs.getString("description"));
+                generator.writeStringField("timestamp", rs.getTimestamp("timestamp").toLocalDateTime().toString());
+                generator.writeStringField("transactionType", rs.getString("transaction_type"));
+                generator.writeEndObject();
+                generator.close();
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    private String accountNumber(ResultSet rs, String column) throws SQLException {
+        String accountNumber = rs.getString(column);
+        return accountNumber != null ? accountNumber : EXTERNAL_ACCOUNT;
+    }
+
+    private String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.app.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+/**
+ * Întreține partițiile lunare ale db_transactions (changeset-ul 014): creează din timp partițiile pentru
+ * lunile următoare, ca inserările să nu eșueze, și mută lunile vechi în schema archive. Astfel, indexurile,
+ * vacuum-ul și interogările de istoric lucrează doar pe partițiile recente. Rândurile ajunse în partiția DEFAULT
+ * (changeset-ul 017) semnalează că întreținerea a rămas în urmă; ele sunt mutate la crearea partiției lunii lor.
+ * Lunile arhivate nu mai apar în istoricul paginat al API-ului, dar rămân în export (TransactionExportService).
+ */
+@Slf4j
+@Component
+public class TransactionPartitionMaintenance {
+
+    private static final String CREATE_PARTITION_SQL = "SELECT create_db_transactions_partition(?)";
+    private static final String ARCHIVE_PARTITIONS_SQL = "SELECT archive_db_transactions_partitions(?)";
+    private static final String DEFAULT_PARTITION_ROWS_SQL = "SELECT count(*) FROM db_transactions_default";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+    private final int archiveAfterMonths;
+
+    @Autowired
+    public TransactionPartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                           @Value("${transactions.partitions.months-ahead:3}") int monthsAhead,
+                                           @Value("${transactions.partitions.archive-after-months:0}") int archiveAfterMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+        this.archiveAfterMonths = archiveAfterMonths;
+    }
+
+    @PostConstruct
+    @Scheduled(cron = "${transactions.partitions.maintenance-cron:0 0 3 * * *}")
+    public void maintainPartitions() {
+        LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+        Long misplaced = jdbcTemplate.queryForObject(DEFAULT_PARTITION_ROWS_SQL, Long.class);
+        if (misplaced != null && misplaced > 0) {
+            log.warn("{} tranzacții au ajuns în db_transactions_default: partițiile lunare nu au fost create la timp. " +
+                    "Ele sunt mutate acum în partițiile lunilor lor.", misplaced);
+        }
+        for (int i = 0; i <= monthsAhead; i++) {
+            jdbcTemplate.queryForList(CREATE_PARTITION_SQL, Date.valueOf(currentMonth.plusMonths(i)));
+        }
+
+        if (archiveAfterMonths > 0) { // 0 = arhivarea este dezactivată
+            LocalDate cutoff = currentMonth.minusMonths(archiveAfterMonths);
+            Integer archived = jdbcTemplate.queryForObject(ARCHIVE_PARTITIONS_SQL, Integer.class, Date.valueOf(cutoff));
+            if (archived != null && archived > 0) {
+                log.info("Arhivate {} partiții din db_transactions anterioare lunii {}", archived, cutoff);
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.app.service;
+
+/**
+ * Modul de control al concurenței folosit de {@link TransferService}.
+ * Se configurează prin proprietatea {@code transfer.locking-mode}.
+ */
+public enum TransferLockingMode {
+
+    /**
+     * Tranzacții SERIALIZABLE: Postgres detectează conflictele și anulează tranzacțiile,
+     * care sunt apoi reîncercate de {@code @Retryable}.
+     */
+    SERIALIZABLE,
+
+    /**
+     * Tranzacții READ COMMITTED în care conturile debitate/creditate sunt citite cu
+     * {@code SELECT ... FOR UPDATE}, blocate mereu în ordinea crescătoare a ID-ului.
+     */
+    ROW_LOCK,
+
+    /**
+     * Tranzacții READ COMMITTED fără blocări explicite: corectitudinea soldului este garantată de
+     * UPDATE-ul condiționat {@code balance = balance - :amount WHERE balance >= :amount}.
+     */
+    CONDITIONAL_UPDATE
+}
@@ -1,34 +1,51 @@
 package com.example.app.service;
 
+import com.example.app.dto.transfer.BatchTransferItemDTO;
+import com.example.app.dto.transfer.BatchTransferItemResultDTO;
+import com.example.app.dto.transfer.BatchTransferRequestDTO;
+import com.example.app.dto.transfer.BatchTransferResponseDTO;
 import com.example.app.dto.transfer.DomesticBankTransferRequestDTO;
 import com.example.app.dto.transfer.IntrabankTransferRequestDTO;
 import com.example.app.dto.transfer.OwnAccountTransferRequestDTO;
 import com.example.app.dto.transfer.TransferResponseDTO;
+import com.example.app.dto.transfer.TransferType;
 import com.example.app.exception.AccountNotFoundException;
 import com.example.app.exception.CurrencyConversionException;
 import com.example.app.exception.InsufficientFundsException;
 import com.example.app.exception.InvalidTransferException;
 import com.example.app.exception.UnauthorizedOperationException;
-import com.example.app.model.DbAccount;
 import com.example.app.model.DbTransaction;
-import com.example.app.model.User;
+import com.example.app.repository.DbAccountBalanceView;
 import com.example.app.repository.DbAccountRepository;
 import com.example.app.repository.DbTransactionRepository;
 import com.example.app.repository.UserRepository;
 import jakarta.persistence.OptimisticLockException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class TransferService {
@@ -37,34 +54,235 @@ public class TransferService {
     private final DbTransactionRepository dbTransactionRepository;
     private final UserRepository userRepository;
     private final ExchangeRateService exchangeRateService;
+    private final FxQuoteService fxQuoteService;
+    private final IdempotencyService idempotencyService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransferLockingMode lockingMode;
+    private final TransactionTemplate transferTransaction;
+    private final TransactionTemplate batchTransaction;
+    private final int maxBatchSize;
 
     private static final BigDecimal DOMESTIC_TRANSFER_FEE_PERCENTAGE = new BigDecimal("0.01"); // 1% comision
 
+    private static final String ADD_TO_BALANCE_SQL = "UPDATE db_accounts SET balance = balance + ? WHERE id = ?";
+    private static final String INSERT_TRANSACTION_SQL = "INSERT INTO db_transactions " +
+            "(from_account_id, to_account_id, amount, currency, description, timestamp, transaction_type, rate_snapshot_version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
     @Autowired
     public TransferService(DbAccountRepository dbAccountRepository,
                            DbTransactionRepository dbTransactionRepository,
                            UserRepository userRepository,
-                           ExchangeRateService exchangeRateService) {
+                           ExchangeRateService exchangeRateService,
+                           FxQuoteService fxQuoteService,
+                           IdempotencyService idempotencyService,
+                           JdbcTemplate jdbcTemplate,
+                           ApplicationEventPublisher eventPublisher,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${transfer.locking-mode:SERIALIZABLE}") TransferLockingMode lockingMode,
+                           @Value("${transfer.batch.max-size:1000}") int maxBatchSize) {
         this.dbAccountRepository = dbAccountRepository;
         this.dbTransactionRepository = dbTransactionRepository;
         this.userRepository = userRepository;
         this.exchangeRateService = exchangeRateService;
+        this.fxQuoteService = fxQuoteService;
+        this.idempotencyService = idempotencyService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.lockingMode = lockingMode;
+        this.maxBatchSize = maxBatchSize;
+
+        // Izolarea depinde de modul configurat, deci tranzacția e pornită programatic în loc de @Transactional
+        this.transferTransaction = new TransactionTemplate(transactionManager);
+        this.transferTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
+        this.transferTransaction.setIsolationLevel(lockingMode == TransferLockingMode.SERIALIZABLE
+                ? TransactionDefinition.ISOLATION_SERIALIZABLE
+                : TransactionDefinition.ISOLATION_READ_COMMITTED);
+
+        // Loturile blochează mereu conturile (SELECT ... FOR UPDATE), indiferent de modul configurat
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
+        this.batchTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
     }
 
     // --- Transfer între Conturile Proprii ---
-    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.SERIALIZABLE, rollbackFor = Exception.class)
     @Retryable(value = { OptimisticLockException.class, DataAccessException.class }, maxAttempts = 3, backoff = @Backoff(delay = 100))
     public TransferResponseDTO transferBetweenOwnAccounts(String currentUsername, OwnAccountTransferRequestDTO request) {
-        User user = userRepository.findByUsername(currentUsername)
-                .orElseThrow(() -> new UsernameNotFoundException("Utilizatorul curent nu a fost găsit: " + currentUsername));
+        ExchangeRateSnapshot rates = exchangeRateService.getSnapshot(); // Ratele rămân fixe pe toată durata transferului
+        return transferTransaction.execute(status -> {
+            Long userId = findCurrentUserId(currentUsername);
+            Map<Long, DbAccountBalanceView> accounts = loadAccountsForTransfer(userId, request.getFromAccountId(), request.getToAccountId());
+            return idempotencyService.completeInTransaction(executeTransfer(planTransferBetweenOwnAccounts(userId, request, accounts, rates)));
+        });
+    }
+
+    // --- Transfer Intrabancar (fără verificare existență cont destinație explicită AICI, doar debitare) ---
+    @Retryable(value = { OptimisticLockException.class, DataAccessException.class }, maxAttempts = 3, backoff = @Backoff(delay = 100))
+    public TransferResponseDTO transferToIntrabankAccount(String currentUsername, IntrabankTransferRequestDTO request) {
+        ExchangeRateSnapshot rates = exchangeRateService.getSnapshot();
+        return transferTransaction.execute(status -> {
+            Long userId = findCurrentUserId(currentUsername);
+            Map<Long, DbAccountBalanceView> accounts = loadAccountsForTransfer(userId, request.getFromAccountId());
+            return idempotencyService.completeInTransaction(executeTransfer(planTransferToIntrabankAccount(userId, request, accounts, rates)));
+        });
+    }
+
+    // --- Transfer Interbancar Național (cu Comision) ---
+    @Retryable(value = { OptimisticLockException.class, DataAccessException.class }, maxAttempts = 3, backoff = @Backoff(delay = 100))
+    public TransferResponseDTO transferToDomesticBankAccount(String currentUsername, DomesticBankTransferRequestDTO request) {
+        ExchangeRateSnapshot rates = exchangeRateService.getSnapshot();
+        return transferTransaction.execute(status -> {
+            Long userId = findCurrentUserId(currentUsername);
+            Map<Long, DbAccountBalanceView> accounts = loadAccountsForTransfer(userId, request.getFromAccountId());
+            return idempotencyService.completeInTransaction(executeTransfer(planTransferToDomesticBankAccount(userId, request, accounts, rates)));
+        });
+    }
+
+    // --- Lot de transferuri (plăți salariale, trezorerie) ---
+    // Toate conturile implicate sunt blocate o singură dată, soldurile sunt urmărite în memorie pe durata lotului,
+    // iar UPDATE-urile de sold și rândurile DbTransaction sunt scrise cu JDBC batching.
+    // Fiecare instrucțiune primește propriul rezultat; cele respinse nu afectează restul lotului.
+    @Retryable(value = { OptimisticLockException.class, DataAccessException.class }, maxAttempts = 3, backoff = @Backoff(delay = 100))
+    public BatchTransferResponseDTO transferBatch(String currentUsername, BatchTransferRequestDTO request) {
+        List<BatchTransferItemDTO> items = request.getTransfers();
+        if (items.size() > maxBatchSize) {
+            throw new InvalidTransferException("Lotul depășește numărul maxim de transferuri permise (" + maxBatchSize + ").");
+        }
+        ExchangeRateSnapshot rates = exchangeRateService.getSnapshot(); // Același set de rate pentru tot lotul
+        return batchTransaction.execute(status ->
+                idempotencyService.completeInTransaction(executeTransferBatch(currentUsername, items, rates)));
+    }
+
+    private BatchTransferResponseDTO executeTransferBatch(String currentUsername, List<BatchTransferItemDTO> items,
+                                                          ExchangeRateSnapshot rates) {
+        Long userId = findCurrentUserId(currentUsername);
 
-        DbAccount sourceAccount = dbAccountRepository.findById(request.getFromAccountId())
-                .orElseThrow(() -> new AccountNotFoundException("Contul sursă nu a fost găsit. ID: " + request.getFromAccountId()));
+        Long[] accountIds = items.stream()
+                .flatMap(item -> Arrays.stream(accountIdsOf(item)))
+                .toArray(Long[]::new);
+        // Toate conturile pe care lotul le poate modifica (surse și destinații) sunt blocate aici, în ordinea ID-urilor,
+        // înaintea primei scrieri; un cont care lipsește din această hartă face instrucțiunea să fie respinsă
+        Map<Long, DbAccountBalanceView> accounts = lockAccounts(userId, accountIds);
 
-        DbAccount destinationAccount = dbAccountRepository.findById(request.getToAccountId())
-                .orElseThrow(() -> new AccountNotFoundException("Contul destinație nu a fost găsit. ID: " + request.getToAccountId()));
+        Map<Long, BigDecimal> availableBalances = new TreeMap<>();
+        accounts.values().forEach(account -> availableBalances.put(account.getId(), account.getBalance()));
+        Map<Long, BigDecimal> balanceDeltas = new TreeMap<>(); // Ordonat după ID, ca UPDATE-urile să urmeze ordinea blocărilor
 
-        if (!sourceAccount.getUser().getId().equals(user.getId()) || !destinationAccount.getUser().getId().equals(user.getId())) {
+        List<BatchTransferItemResultDTO> results = new ArrayList<>(items.size());
+        List<Object[]> transactionRows = new ArrayList<>(items.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        for (int index = 0; index < items.size(); index++) {
+            BatchTransferItemDTO item = items.get(index);
+            try {
+                TransferPlan plan = planBatchItem(userId, item, accounts, rates);
+
+                Long sourceId = plan.sourceAccount().getId();
+                BigDecimal available = availableBalances.get(sourceId);
+                if (available.compareTo(plan.debitAmount()) < 0) {
+                    throw new InsufficientFundsException(plan.insufficientFundsMessage().apply(available));
+                }
+                availableBalances.put(sourceId, available.subtract(plan.debitAmount()));
+                balanceDeltas.merge(sourceId, plan.debitAmount().negate(), BigDecimal::add);
+                if (plan.destinationAccount() != null) {
+                    Long destinationId = plan.destinationAccount().getId();
+                    availableBalances.merge(destinationId, plan.creditAmount(), BigDecimal::add);
+                    balanceDeltas.merge(destinationId, plan.creditAmount(), BigDecimal::add);
+                }
+
+                transactionRows.add(new Object[] {
+                        sourceId,
+                        plan.destinationAccount() != null ? plan.destinationAccount().getId() : null,
+                        plan.recordedAmount(),
+                        plan.recordedCurrency().toUpperCase(),
+                        plan.description(),
+                        now,
+                        plan.transactionType(),
+                        plan.rateSnapshotVersion()
+                });
+                results.add(new BatchTransferItemResultDTO(index, item.getType(), BatchTransferItemResultDTO.STATUS_SUCCESS, plan.successMessage()));
+            } catch (AccountNotFoundException | UnauthorizedOperationException | InvalidTransferException
+                     | InsufficientFundsException | CurrencyConversionException e) {
+                results.add(new BatchTransferItemResultDTO(index, item.getType(), BatchTransferItemResultDTO.STATUS_FAILED, e.getMessage()));
+            }
+        }
+
+        // Conturile sunt deja blocate, deci soldul net al fiecărui cont poate fi aplicat fără condiții suplimentare
+        List<Object[]> balanceUpdates = balanceDeltas.entrySet().stream()
+                .filter(entry -> entry.getValue().signum() != 0)
+                .map(entry -> new Object[] { entry.getValue(), entry.getKey() })
+                .collect(Collectors.toList());
+        if (!balanceUpdates.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADD_TO_BALANCE_SQL, balanceUpdates);
+            eventPublisher.publishEvent(new AccountsChangedEvent(balanceDeltas.entrySet().stream()
+                    .filter(entry -> entry.getValue().signum() != 0)
+                    .map(entry -> accounts.get(entry.getKey()).getUserId())
+                    .collect(Collectors.toSet())));
+        }
+        if (!transactionRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_TRANSACTION_SQL, transactionRows);
+        }
+
+        int succeeded = transactionRows.size();
+        int failed = items.size() - succeeded;
+        return new BatchTransferResponseDTO("Lot procesat: " + succeeded + " transferuri efectuate, " + failed + " respinse.",
+                succeeded, failed, results);
+    }
+
+    private TransferPlan planBatchItem(Long userId, BatchTransferItemDTO item, Map<Long, DbAccountBalanceView> accounts,
+                                       ExchangeRateSnapshot rates) {
+        switch (item.getType()) {
+            case OWN_ACCOUNT:
+                if (item.getOwnAccount() == null) {
+                    throw new InvalidTransferException("Lipsesc detaliile pentru transferul între conturi proprii.");
+                }
+                return planTransferBetweenOwnAccounts(userId, item.getOwnAccount(), accounts, rates);
+            case INTRABANK:
+                if (item.getIntrabank() == null) {
+                    throw new InvalidTransferException("Lipsesc detaliile pentru transferul intrabancar.");
+                }
+                return planTransferToIntrabankAccount(userId, item.getIntrabank(), accounts, rates);
+            case DOMESTIC_BANK:
+                if (item.getDomesticBank() == null) {
+                    throw new InvalidTransferException("Lipsesc detaliile pentru transferul interbancar național.");
+                }
+                return planTransferToDomesticBankAccount(userId, item.getDomesticBank(), accounts, rates);
+            default:
+                throw new InvalidTransferException("Tip de transfer nesuportat: " + item.getType());
+        }
+    }
+
+    // Conturile din detaliile care corespund tipului instrucțiunii, exact cele folosite de planBatchItem
+    private Long[] accountIdsOf(BatchTransferItemDTO item) {
+        switch (item.getType()) {
+            case OWN_ACCOUNT:
+                return item.getOwnAccount() == null ? new Long[0]
+                        : new Long[] { item.getOwnAccount().getFromAccountId(), item.getOwnAccount().getToAccountId() };
+            case INTRABANK:
+                return item.getIntrabank() == null ? new Long[0] : new Long[] { item.getIntrabank().getFromAccountId() };
+            case DOMESTIC_BANK:
+                return item.getDomesticBank() == null ? new Long[0] : new Long[] { item.getDomesticBank().getFromAccountId() };
+            default:
+                return new Long[0];
+        }
+    }
+
+    // Validează transferul și calculează sumele, fără a modifica soldurile
+    private TransferPlan planTransferBetweenOwnAccounts(Long userId, OwnAccountTransferRequestDTO request,
+                                                        Map<Long, DbAccountBalanceView> accounts,
+                                                        ExchangeRateSnapshot rates) {
+        DbAccountBalanceView sourceAccount = accounts.get(request.getFromAccountId());
+        if (sourceAccount == null) {
+            throw new AccountNotFoundException("Contul sursă nu a fost găsit. ID: " + request.getFromAccountId());
+        }
+
+        DbAccountBalanceView destinationAccount = accounts.get(request.getToAccountId());
+        if (destinationAccount == null) {
+            throw new AccountNotFoundException("Contul destinație nu a fost găsit. ID: " + request.getToAccountId());
+        }
+
+        if (!sourceAccount.getUserId().equals(userId) || !destinationAccount.getUserId().equals(userId)) {
             throw new UnauthorizedOperationException("Utilizatorul nu este proprietarul ambelor conturi pentru transferul propriu.");
         }
         if (sourceAccount.getId().equals(destinationAccount.getId())) {
@@ -80,8 +298,8 @@ public class TransferService {
 
         if (!sourceAccount.getCurrency().equalsIgnoreCase(destinationAccount.getCurrency())) {
             try {
-                BigDecimal rate = exchangeRateService.getExchangeRate(sourceAccount.getCurrency(), destinationAccount.getCurrency());
-                amountToCredit = exchangeRateService.convert(amountToDebit, sourceAccount.getCurrency(), destinationAccount.getCurrency());
+                BigDecimal rate = exchangeRateService.getExchangeRate(rates, sourceAccount.getCurrency(), destinationAccount.getCurrency());
+                amountToCredit = exchangeRateService.convert(rates, amountToDebit, sourceAccount.getCurrency(), destinationAccount.getCurrency());
                 finalTransactionDescription += String.format(" (Suma originală: %.2f %s, Suma creditată: %.2f %s. Curs: 1 %s = %.4f %s)",
                         amountToDebit, sourceAccount.getCurrency(),
                         amountToCredit, destinationAccount.getCurrency(),
@@ -93,33 +311,21 @@ public class TransferService {
             amountToCredit = amountToDebit;
         }
 
-        if (sourceAccount.getBalance().compareTo(amountToDebit) < 0) {
-            throw new InsufficientFundsException("Fonduri insuficiente în contul sursă: " + sourceAccount.getAccountNumber() + ". Necesitați: " + amountToDebit.setScale(2, RoundingMode.HALF_UP) + " " + sourceAccount.getCurrency());
-        }
-
-        sourceAccount.setBalance(sourceAccount.getBalance().subtract(amountToDebit));
-        destinationAccount.setBalance(destinationAccount.getBalance().add(amountToCredit));
-
-        dbAccountRepository.save(sourceAccount);
-        dbAccountRepository.save(destinationAccount);
-
-        createAndSaveTransaction(sourceAccount, destinationAccount, amountToDebit, sourceAccount.getCurrency(),
-                "OWN_ACCOUNT_TRANSFER", finalTransactionDescription);
-
-        return new TransferResponseDTO("Transfer între conturi proprii efectuat cu succes.");
+        return new TransferPlan(sourceAccount, destinationAccount, amountToDebit, amountToCredit,
+                amountToDebit, sourceAccount.getCurrency(), "OWN_ACCOUNT_TRANSFER", finalTransactionDescription, rates.getVersion(),
+                available -> "Fonduri insuficiente în contul sursă: " + sourceAccount.getAccountNumber() + ". Necesitați: " + amountToDebit.setScale(2, RoundingMode.HALF_UP) + " " + sourceAccount.getCurrency(),
+                "Transfer între conturi proprii efectuat cu succes.");
     }
 
-    // --- Transfer Intrabancar (fără verificare existență cont destinație explicită AICI, doar debitare) ---
-    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.SERIALIZABLE, rollbackFor = Exception.class)
-    @Retryable(value = { OptimisticLockException.class, DataAccessException.class }, maxAttempts = 3, backoff = @Backoff(delay = 100))
-    public TransferResponseDTO transferToIntrabankAccount(String currentUsername, IntrabankTransferRequestDTO request) {
-        User user = userRepository.findByUsername(currentUsername)
-                .orElseThrow(() -> new UsernameNotFoundException("Utilizatorul curent nu a fost găsit: " + currentUsername));
-
-        DbAccount sourceAccount = dbAccountRepository.findById(request.getFromAccountId())
-                .orElseThrow(() -> new AccountNotFoundException("Contul sursă nu a fost găsit. ID: " + request.getFromAccountId()));
+    private TransferPlan planTransferToIntrabankAccount(Long userId, IntrabankTransferRequestDTO request,
+                                                        Map<Long, DbAccountBalanceView> accounts,
+                                                        ExchangeRateSnapshot rates) {
+        DbAccountBalanceView sourceAccount = accounts.get(request.getFromAccountId());
+        if (sourceAccount == null) {
+            throw new AccountNotFoundException("Contul sursă nu a fost găsit. ID: " + request.getFromAccountId());
+        }
 
-        if (!sourceAccount.getUser().getId().equals(user.getId())) {
+        if (!sourceAccount.getUserId().equals(userId)) {
             throw new UnauthorizedOperationException("Utilizatorul nu este proprietarul contului sursă pentru transferul intrabancar.");
         }
         if (sourceAccount.getAccountNumber().equalsIgnoreCase(request.getToIban())) {
@@ -130,6 +336,11 @@ public class TransferService {
         String transferCurrency = request.getCurrency().toUpperCase();
         BigDecimal amountToDebitFromSource;
 
+        // Cu o cotație validă, rata și suma debitată sunt cele comunicate clientului, fără a fi recalculate
+        FxQuote quote = request.getQuoteId() == null ? null : fxQuoteService.getQuote(request.getQuoteId(), userId,
+                TransferType.INTRABANK, requestedAmountInTransferCurrency, transferCurrency, sourceAccount.getCurrency());
+        ExchangeRateSnapshot appliedRates = quote != null ? quote.rates() : rates;
+
         String finalTransactionDescription = "Transfer intrabancar către IBAN " + request.getToIban() + " (Beneficiar: " + request.getBeneficiaryName() + ")";
         if (request.getDescription() != null && !request.getDescription().isEmpty()) {
             finalTransactionDescription += ": " + request.getDescription();
@@ -137,8 +348,10 @@ public class TransferService {
 
         if (!sourceAccount.getCurrency().equalsIgnoreCase(transferCurrency)) {
             try {
-                BigDecimal rate = exchangeRateService.getExchangeRate(transferCurrency, sourceAccount.getCurrency());
-                amountToDebitFromSource = exchangeRateService.convert(requestedAmountInTransferCurrency, transferCurrency, sourceAccount.getCurrency());
+                BigDecimal rate = quote != null ? quote.rate()
+                        : exchangeRateService.getExchangeRate(appliedRates, transferCurrency, sourceAccount.getCurrency());
+                amountToDebitFromSource = quote != null ? quote.debitAmount()
+                        : exchangeRateService.convert(appliedRates, requestedAmountInTransferCurrency, transferCurrency, sourceAccount.getCurrency());
                 finalTransactionDescription += String.format(" (Valoare debitată: %.2f %s pentru transfer de %.2f %s. Curs: 1 %s = %.4f %s)",
                         amountToDebitFromSource, sourceAccount.getCurrency(),
                         requestedAmountInTransferCurrency, transferCurrency,
@@ -150,39 +363,34 @@ public class TransferService {
             amountToDebitFromSource = requestedAmountInTransferCurrency;
         }
 
-        if (sourceAccount.getBalance().compareTo(amountToDebitFromSource) < 0) {
-            throw new InsufficientFundsException("Fonduri insuficiente în contul sursă: " + sourceAccount.getAccountNumber() + ". Necesitați: " + amountToDebitFromSource.setScale(2, RoundingMode.HALF_UP) + " " + sourceAccount.getCurrency());
-        }
-
-        sourceAccount.setBalance(sourceAccount.getBalance().subtract(amountToDebitFromSource));
-        dbAccountRepository.save(sourceAccount);
-
         // Pentru acest model simplificat de transfer "intrabancar", nu credităm un cont destinație specific din DbAccount.
         // Tranzacția este înregistrată ca o ieșire către un IBAN (care se presupune a fi în aceeași bancă).
-        createAndSaveTransaction(sourceAccount, null, requestedAmountInTransferCurrency, transferCurrency,
-                "INTRABANK_TRANSFER_SENT", finalTransactionDescription);
-
-        return new TransferResponseDTO("Transferul către IBAN-ul " + request.getToIban() + " a fost inițiat.");
+        return new TransferPlan(sourceAccount, null, amountToDebitFromSource, null,
+                requestedAmountInTransferCurrency, transferCurrency, "INTRABANK_TRANSFER_SENT", finalTransactionDescription, appliedRates.getVersion(),
+                available -> "Fonduri insuficiente în contul sursă: " + sourceAccount.getAccountNumber() + ". Necesitați: " + amountToDebitFromSource.setScale(2, RoundingMode.HALF_UP) + " " + sourceAccount.getCurrency(),
+                "Transferul către IBAN-ul " + request.getToIban() + " a fost inițiat.");
     }
 
-    // --- Transfer Interbancar Național (cu Comision) ---
-    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.SERIALIZABLE, rollbackFor = Exception.class)
-    @Retryable(value = { OptimisticLockException.class, DataAccessException.class }, maxAttempts = 3, backoff = @Backoff(delay = 100))
-    public TransferResponseDTO transferToDomesticBankAccount(String currentUsername, DomesticBankTransferRequestDTO request) {
-        User user = userRepository.findByUsername(currentUsername)
-                .orElseThrow(() -> new UsernameNotFoundException("Utilizatorul curent nu a fost găsit: " + currentUsername));
-
-        DbAccount sourceAccount = dbAccountRepository.findById(request.getFromAccountId())
-                .orElseThrow(() -> new AccountNotFoundException("Contul sursă nu a fost găsit. ID: " + request.getFromAccountId()));
+    private TransferPlan planTransferToDomesticBankAccount(Long userId, DomesticBankTransferRequestDTO request,
+                                                           Map<Long, DbAccountBalanceView> accounts,
+                                                           ExchangeRateSnapshot rates) {
+        DbAccountBalanceView sourceAccount = accounts.get(request.getFromAccountId());
+        if (sourceAccount == null) {
+            throw new AccountNotFoundException("Contul sursă nu a fost găsit. ID: " + request.getFromAccountId());
+        }
 
-        if (!sourceAccount.getUser().getId().equals(user.getId())) {
+        if (!sourceAccount.getUserId().equals(userId)) {
             throw new UnauthorizedOperationException("Utilizatorul nu este proprietarul contului sursă pentru transferul domestic.");
         }
 
         BigDecimal amountToSend = request.getAmount(); // Suma pe care utilizatorul vrea să o primească destinatarul
         String transferCurrency = request.getCurrency().toUpperCase();
 
-        BigDecimal commissionAmount = amountToSend.multiply(DOMESTIC_TRANSFER_FEE_PERCENTAGE).setScale(2, RoundingMode.HALF_UP);
+        FxQuote quote = request.getQuoteId() == null ? null : fxQuoteService.getQuote(request.getQuoteId(), userId,
+                TransferType.DOMESTIC_BANK, amountToSend, transferCurrency, sourceAccount.getCurrency());
+        ExchangeRateSnapshot appliedRates = quote != null ? quote.rates() : rates;
+
+        BigDecimal commissionAmount = quote != null ? quote.fee() : calculateDomesticTransferFee(amountToSend);
         BigDecimal totalAmountInTransferCurrency = amountToSend.add(commissionAmount);
 
         BigDecimal amountToDebitFromSource;
@@ -199,8 +407,10 @@ public class TransferService {
 
         if (!sourceAccount.getCurrency().equalsIgnoreCase(transferCurrency)) {
             try {
-                BigDecimal rate = exchangeRateService.getExchangeRate(transferCurrency, sourceAccount.getCurrency());
-                amountToDebitFromSource = exchangeRateService.convert(totalAmountInTransferCurrency, transferCurrency, sourceAccount.getCurrency());
+                BigDecimal rate = quote != null ? quote.rate()
+                        : exchangeRateService.getExchangeRate(appliedRates, transferCurrency, sourceAccount.getCurrency());
+                amountToDebitFromSource = quote != null ? quote.debitAmount()
+                        : exchangeRateService.convert(appliedRates, totalAmountInTransferCurrency, transferCurrency, sourceAccount.getCurrency());
                 finalTransactionDescription += String.format("%.2f %s (Curs: 1 %s = %.4f %s)",
                         amountToDebitFromSource, sourceAccount.getCurrency(),
                         transferCurrency, rate, sourceAccount.getCurrency());
@@ -212,25 +422,6 @@ public class TransferService {
             finalTransactionDescription += String.format("%.2f %s", amountToDebitFromSource, sourceAccount.getCurrency());
         }
 
-        if (sourceAccount.getBalance().compareTo(amountToDebitFromSource) < 0) {
-            BigDecimal commissionInSourceCurrency = sourceAccount.getCurrency().equalsIgnoreCase(transferCurrency) ?
-                    commissionAmount :
-                    exchangeRateService.convert(commissionAmount, transferCurrency, sourceAccount.getCurrency());
-            throw new InsufficientFundsException(String.format(
-                    "Fonduri insuficiente în contul sursă %s. Necesitați: %.2f %s (include comision de %.2f %s). Sold disponibil: %.2f %s",
-                    sourceAccount.getAccountNumber(),
-                    amountToDebitFromSource.setScale(2, RoundingMode.HALF_UP), sourceAccount.getCurrency(),
-                    commissionInSourceCurrency.setScale(2, RoundingMode.HALF_UP), sourceAccount.getCurrency(),
-                    sourceAccount.getBalance().setScale(2, RoundingMode.HALF_UP), sourceAccount.getCurrency()
-            ));
-        }
-
-        sourceAccount.setBalance(sourceAccount.getBalance().subtract(amountToDebitFromSource));
-        dbAccountRepository.save(sourceAccount);
-
-        createAndSaveTransaction(sourceAccount, null, amountToSend, transferCurrency,
-                "DOMESTIC_BANK_TRANSFER", finalTransactionDescription);
-
         // Dacă dorești să înregistrezi comisionul ca o tranzacție separată:
         // BigDecimal commissionInSourceCurrency = sourceAccount.getCurrency().equalsIgnoreCase(transferCurrency) ?
         //                                         commissionAmount :
@@ -238,25 +429,137 @@ public class TransferService {
         // createAndSaveTransaction(sourceAccount, null, commissionInSourceCurrency, sourceAccount.getCurrency(),
         //                          "TRANSFER_FEE", "Comision transfer domestic către " + request.getToIban());
 
-        return new TransferResponseDTO("Transfer interbancar național inițiat cu succes. Suma totală debitată (inclusiv comision): " + amountToDebitFromSource.setScale(2, RoundingMode.HALF_UP) + " " + sourceAccount.getCurrency());
+        return new TransferPlan(sourceAccount, null, amountToDebitFromSource, null,
+                amountToSend, transferCurrency, "DOMESTIC_BANK_TRANSFER", finalTransactionDescription, appliedRates.getVersion(),
+                available -> {
+                    BigDecimal commissionInSourceCurrency = sourceAccount.getCurrency().equalsIgnoreCase(transferCurrency) ?
+                            commissionAmount :
+                            exchangeRateService.convert(appliedRates, commissionAmount, transferCurrency, sourceAccount.getCurrency());
+                    return String.format(
+                            "Fonduri insuficiente în contul sursă %s. Necesitați: %.2f %s (include comision de %.2f %s). Sold disponibil: %.2f %s",
+                            sourceAccount.getAccountNumber(),
+                            amountToDebitFromSource.setScale(2, RoundingMode.HALF_UP), sourceAccount.getCurrency(),
+                            commissionInSourceCurrency.setScale(2, RoundingMode.HALF_UP), sourceAccount.getCurrency(),
+                            available.setScale(2, RoundingMode.HALF_UP), sourceAccount.getCurrency()
+                    );
+                },
+                "Transfer interbancar național inițiat cu succes. Suma totală debitată (inclusiv comision): " + amountToDebitFromSource.setScale(2, RoundingMode.HALF_UP) + " " + sourceAccount.getCurrency());
+    }
+
+    // Comisionul transferului interbancar național, în moneda transferului (folosit și la cotații)
+    static BigDecimal calculateDomesticTransferFee(BigDecimal amount) {
+        return amount.multiply(DOMESTIC_TRANSFER_FEE_PERCENTAGE).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    // Execută un transfer individual deja validat: verifică soldul, aplică UPDATE-urile și înregistrează tranzacția
+    private TransferResponseDTO executeTransfer(TransferPlan plan) {
+        DbAccountBalanceView sourceAccount = plan.sourceAccount();
+        if (sourceAccount.getBalance().compareTo(plan.debitAmount()) < 0) {
+            throw new InsufficientFundsException(plan.insufficientFundsMessage().apply(sourceAccount.getBalance()));
+        }
+
+        applyBalanceChanges(plan);
+        // Cache-ul listelor de conturi este invalidat abia după commit
+        eventPublisher.publishEvent(new AccountsChangedEvent(Stream.of(sourceAccount, plan.destinationAccount())
+                .filter(Objects::nonNull)
+                .map(DbAccountBalanceView::getUserId)
+                .collect(Collectors.toSet())));
+
+        createAndSaveTransaction(sourceAccount.getId(),
+                plan.destinationAccount() != null ? plan.destinationAccount().getId() : null,
+                plan.recordedAmount(), plan.recordedCurrency(), plan.transactionType(), plan.description(),
+                plan.rateSnapshotVersion());
+
+        return new TransferResponseDTO(plan.successMessage());
+    }
+
+    private Long findCurrentUserId(String currentUsername) {
+        return userRepository.findIdByUsername(currentUsername)
+                .orElseThrow(() -> new UsernameNotFoundException("Utilizatorul curent nu a fost găsit: " + currentUsername));
+    }
+
+    // Încarcă doar coloanele necesare transferului (fără entitatea DbAccount). În modul ROW_LOCK rândurile
+    // sunt blocate cu SELECT ... FOR UPDATE, mereu în ordinea crescătoare a ID-ului, astfel încât două
+    // transferuri opuse să nu intre în deadlock.
+    private Map<Long, DbAccountBalanceView> loadAccountsForTransfer(Long userId, Long... accountIds) {
+        return lockingMode == TransferLockingMode.ROW_LOCK
+                ? lockAccounts(userId, accountIds)
+                : toAccountMap(dbAccountRepository.findBalanceViewsByIdIn(sortedDistinct(accountIds)));
+    }
+
+    // Conturile altor utilizatori nu sunt blocate și lipsesc din rezultat (planificarea le tratează ca negăsite)
+    private Map<Long, DbAccountBalanceView> lockAccounts(Long userId, Long... accountIds) {
+        List<Long> ids = sortedDistinct(accountIds);
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return toAccountMap(dbAccountRepository.findBalanceViewsByIdInForUpdate(ids, userId));
+    }
+
+    private List<Long> sortedDistinct(Long... accountIds) {
+        return Arrays.stream(accountIds)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private Map<Long, DbAccountBalanceView> toAccountMap(List<DbAccountBalanceView> accounts) {
+        return accounts.stream().collect(Collectors.toMap(DbAccountBalanceView::getId, Function.identity()));
+    }
+
+    // Modifică soldurile direct în baza de date cu UPDATE-uri condiționate. Debitul reușește doar dacă soldul
+    // acoperă suma (verificare atomică, independentă de nivelul de izolare). UPDATE-urile sunt executate în
+    // ordinea ID-urilor, la fel ca blocările din loadAccountsForTransfer.
+    private void applyBalanceChanges(TransferPlan plan) {
+        DbAccountBalanceView sourceAccount = plan.sourceAccount();
+        DbAccountBalanceView destinationAccount = plan.destinationAccount();
+
+        boolean creditFirst = destinationAccount != null && destinationAccount.getId() < sourceAccount.getId();
+        if (creditFirst) {
+            dbAccountRepository.credit(destinationAccount.getId(), plan.creditAmount());
+        }
+        if (dbAccountRepository.debitIfSufficientFunds(sourceAccount.getId(), plan.debitAmount()) == 0) {
+            throw new InsufficientFundsException(plan.insufficientFundsMessage().apply(sourceAccount.getBalance()));
+        }
+        if (destinationAccount != null && !creditFirst) {
+            dbAccountRepository.credit(destinationAccount.getId(), plan.creditAmount());
+        }
     }
 
     // Helper pentru crearea și salvarea obiectului DbTransaction
-    // Asigură-te că entitatea DbTransaction are un câmp 'currency' și setter/getter pentru el.
-    private DbTransaction createAndSaveTransaction(DbAccount fromAccount,
-                                                   DbAccount toAccount,
+    // Conturile sunt referite prin proxy (getReferenceById), fără a le mai încărca din baza de date.
+    private DbTransaction createAndSaveTransaction(Long fromAccountId,
+                                                   Long toAccountId,
                                                    BigDecimal amount,
                                                    String currency,
                                                    String transactionType,
-                                                   String description) {
+                                                   String description,
+                                                   Long rateSnapshotVersion) {
         DbTransaction transaction = new DbTransaction();
-        transaction.setFromAccount(fromAccount);
-        transaction.setToAccount(toAccount); // Poate fi null pentru transferuri externe
+        transaction.setFromAccount(fromAccountId != null ? dbAccountRepository.getReferenceById(fromAccountId) : null);
+        transaction.setToAccount(toAccountId != null ? dbAccountRepository.getReferenceById(toAccountId) : null); // Poate fi null pentru transferuri externe
         transaction.setAmount(amount);
         transaction.setCurrency(currency.toUpperCase()); // Stochează moneda tranzacției
         transaction.setTransactionType(transactionType);
         transaction.setDescription(description);
         transaction.setTimestamp(LocalDateTime.now());
+        transaction.setRateSnapshotVersion(rateSnapshotVersion);
         return dbTransactionRepository.save(transaction);
     }
-}
\ No newline at end of file
+
+    // Rezultatul validării unui transfer: sumele de debitat/creditat și ce se înregistrează în DbTransaction.
+    // destinationAccount și creditAmount sunt null pentru transferurile către un IBAN.
+    private record TransferPlan(DbAccountBalanceView sourceAccount,
+                                DbAccountBalanceView destinationAccount,
+                                BigDecimal debitAmount,
+                                BigDecimal creditAmount,
+                                BigDecimal recordedAmount,
+                                String recordedCurrency,
+                                String transactionType,
+                                String description,
+                                long rateSnapshotVersion,
+                                Function<BigDecimal, String> insufficientFundsMessage, // primește soldul disponibil
+                                String successMessage) {
+    }
+}
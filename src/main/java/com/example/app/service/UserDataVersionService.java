@@ -0,0 +1,53 @@
+package com.example.app.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Versiunea datelor (conturi, solduri, tranzacții) fiecărui utilizator, folosită ca ETag pentru GET-urile
+// de conturi și tranzacții. Versiunea se schimbă după commit-ul oricărei tranzacții care modifică un cont
+// al utilizatorului (AccountsChangedEvent).
+// Fiecare utilizator are propriul contor, pornit de la o valoare aleatoare de 64 de biți: o intrare eliminată
+// din cache (sau pierdută la restart) este recreată cu o versiune nouă, practic niciodată una deja văzută de client,
+// iar modificările unui utilizator nu ating contoarele celorlalți.
+// Versiunile sunt locale fiecărei instanțe: evenimentul ajunge doar la nodul care a făcut modificarea. Corect
+// doar pentru o singură instanță; cu mai multe noduri, fiecare versiune expiră după accounts.data-versions.ttl
+// și este regenerată, deci un alt nod poate răspunde greșit cu 304 cel mult pe durata TTL-ului.
+@Service
+public class UserDataVersionService {
+
+    private final Cache<Long, AtomicLong> versions;
+
+    @Autowired
+    public UserDataVersionService(@Value("${accounts.data-versions.ttl:30000}") long ttlMillis,
+                                  @Value("${accounts.data-versions.max-size:100000}") long maxSize) {
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .build();
+    }
+
+    // ETag puternic (între ghilimele), gata de comparat cu If-None-Match
+    public String etag(Long userId) {
+        long version = versions.get(userId, id -> new AtomicLong(ThreadLocalRandom.current().nextLong())).get();
+        return "\"" + Long.toHexString(version) + "\"";
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAccountsChanged(AccountsChangedEvent event) {
+        for (Long userId : event.userIds()) {
+            AtomicLong version = versions.getIfPresent(userId);
+            if (version != null) {
+                version.incrementAndGet(); // Fără intrare, următorul etag() pornește oricum de la o valoare nouă
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.app.service;
+
+import com.example.app.model.AuthenticatedUser;
+import com.example.app.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+// Cache pentru principalii folosiți de JwtAuthenticationFilter, ca o cerere autentificată să nu mai
+// interogheze tabela users. Intrările expiră după un TTL și sunt invalidate explicit când utilizatorul se schimbă.
+// Statisticile (hit/miss/evictions) sunt expuse prin Micrometer sub numele de cache "userPrincipals".
+@Service
+public class UserPrincipalCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, AuthenticatedUser> principals;
+
+    @Autowired
+    public UserPrincipalCache(UserRepository userRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${security.principal-cache.ttl:300000}") long ttlMillis,
+                              @Value("${security.principal-cache.max-size:10000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "userPrincipals");
+    }
+
+    /**
+     * @throws UsernameNotFoundException dacă utilizatorul nu există (rezultatul negativ nu este ținut în cache).
+     */
+    public AuthenticatedUser loadByUsername(String username) {
+        return principals.get(username, key -> userRepository.findPrincipalByUsername(key)
+                .map(view -> new AuthenticatedUser(view.getId(), view.getUsername(), List.of()))
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + key)));
+    }
+
+    public void invalidate(String username) {
+        principals.invalidate(username);
+    }
+}
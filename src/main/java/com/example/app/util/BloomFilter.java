@@ -0,0 +1,74 @@
+package com.example.app.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * Filtru Bloom imutabil pentru șiruri de caractere: răspunde "sigur absent" sau "posibil prezent".
+ * Folosit ca pas rapid înaintea unei căutări exacte, când aproape toate valorile verificate lipsesc din set.
+ */
+public final class BloomFilter {
+
+    private final BitSet bits;
+    private final int bitCount;
+    private final int hashCount;
+
+    private BloomFilter(BitSet bits, int bitCount, int hashCount) {
+        this.bits = bits;
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * Construiește filtrul dimensionat pentru numărul de valori primite și rata de fals-pozitive cerută.
+     */
+    public static BloomFilter of(Collection<String> values, double falsePositiveRate) {
+        int expected = Math.max(values.size(), 1);
+        int bitCount = (int) Math.ceil(-expected * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        bitCount = Math.max(bitCount, 64);
+        int hashCount = Math.max(1, (int) Math.round((double) bitCount / expected * Math.log(2)));
+
+        BloomFilter filter = new BloomFilter(new BitSet(bitCount), bitCount, hashCount);
+        values.forEach(filter::add);
+        return filter;
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            if (!bits.get(index(h1 + i * h2))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(String value) {
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            bits.set(index(h1 + i * h2));
+        }
+    }
+
+    private int index(int combinedHash) {
+        return (combinedHash & Integer.MAX_VALUE) % bitCount;
+    }
+
+    // FNV-1a pe 64 de biți, urmat de un pas de amestecare pentru o distribuție mai bună a biților superiori
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.app.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Limitează liniile de log frecvente (ex: una per cerere) la cel mult {@code maxPerSecond} pe secundă.
+ * Liniile peste limită sunt numărate, iar numărul lor este raportat la următoarea linie acceptată.
+ * Nu folosește blocări, deci poate fi apelat din orice fir de execuție al cererilor.
+ */
+public final class LogSampler {
+
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    private final int maxPerSecond;
+    private final LongSupplier nanoClock;
+    private final AtomicLong windowStart;
+    private final AtomicLong acceptedInWindow = new AtomicLong();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public LogSampler(int maxPerSecond) {
+        this(maxPerSecond, System::nanoTime);
+    }
+
+    // Ceasul poate fi înlocuit în teste
+    LogSampler(int maxPerSecond, LongSupplier nanoClock) {
+        this.maxPerSecond = maxPerSecond;
+        this.nanoClock = nanoClock;
+        this.windowStart = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * @return true dacă linia curentă trebuie scrisă.
+     */
+    public boolean sample() {
+        long now = nanoClock.getAsLong();
+        long start = windowStart.get();
+        if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+            acceptedInWindow.set(0);
+        }
+        if (acceptedInWindow.incrementAndGet() <= maxPerSecond) {
+            return true;
+        }
+        suppressed.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * @return numărul de linii omise de la ultimul apel, apoi resetează contorul.
+     */
+    public long drainSuppressed() {
+        return suppressed.getAndSet(0);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.app.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Poziția ultimei tranzacții dintr-o pagină, în ordinea (timestamp DESC, id DESC).
+ * Pagina următoare conține tranzacțiile strict "mai vechi" decât această poziție, deci interogarea
+ * pornește direct din index, indiferent cât de lung este istoricul. Clientul primește cursorul ca șir opac.
+ */
+public record TransactionCursor(LocalDateTime timestamp, Long id) {
+
+    // Poziție aflată înaintea oricărei tranzacții reale, folosită pentru prima pagină
+    public static final TransactionCursor FIRST_PAGE = new TransactionCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    public String encode() {
+        String value = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return {@link #FIRST_PAGE} dacă cursorul lipsește.
+     * @throws IllegalArgumentException dacă cursorul nu a fost emis de API.
+     */
+    public static TransactionCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST_PAGE;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf('|');
+            return new TransactionCursor(LocalDateTime.parse(value.substring(0, separator)), Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Cursorul de paginare este invalid.");
+        }
+    }
+}
@@ -0,0 +1,16 @@
+create table idempotency_keys
+(
+    id              bigserial primary key,
+    username        varchar(50)  not null,
+    idempotency_key varchar(255) not null,
+    request_hash    varchar(64)  not null,
+    status          varchar(20)  not null,
+    response_body   text,
+    created_at      timestamp    not null,
+    expires_at      timestamp    not null,
+    constraint uq_idempotency_keys_username_key unique (username, idempotency_key)
+);
+
+create index idx_idempotency_keys_expires_at on idempotency_keys (expires_at);
+
+alter table idempotency_keys owner to root;
@@ -0,0 +1,5 @@
+-- Hibernate folosește optimizatorul pooled (allocationSize = 50): un singur apel nextval rezervă 50 de ID-uri,
+-- deci pasul secvențelor trebuie să fie egal cu allocationSize din entități.
+alter sequence user_id_seq increment by 50;
+alter sequence db_accounts_id_seq increment by 50;
+alter sequence db_transactions_id_seq increment by 50;
@@ -0,0 +1,11 @@
+create table exchange_rate_snapshots
+(
+    version    bigint primary key,
+    rates      text         not null, -- Perechi MONEDA=rata față de LEI, câte una pe linie
+    source     varchar(500),
+    created_at timestamp    not null
+);
+
+alter table exchange_rate_snapshots owner to root;
+
+alter table db_transactions add column rate_snapshot_version bigint;
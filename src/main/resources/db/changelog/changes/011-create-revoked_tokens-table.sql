@@ -0,0 +1,16 @@
+-- Un rând cu jti revocă un singur token; un rând doar cu user_id revocă toate token-urile
+-- utilizatorului emise înainte de revoked_at. Rândurile pot fi șterse după expires_at.
+create table revoked_tokens
+(
+    id         bigserial primary key,
+    jti        varchar(64),
+    user_id    bigint,
+    revoked_at timestamp not null,
+    expires_at timestamp not null,
+    constraint chk_revoked_tokens_target check (jti is not null or user_id is not null)
+);
+
+create unique index uq_revoked_tokens_jti on revoked_tokens (jti);
+create index idx_revoked_tokens_expires_at on revoked_tokens (expires_at);
+
+alter table revoked_tokens owner to root;
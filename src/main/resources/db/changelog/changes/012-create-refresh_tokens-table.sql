@@ -0,0 +1,18 @@
+-- Refresh token-urile sunt salvate doar ca digest SHA-256. Toate token-urile obținute prin rotație
+-- dintr-un login au același family_id; un token folosit (used_at) este păstrat până la expirare
+-- pentru a detecta reutilizarea lui, caz în care întreaga familie este ștearsă.
+create table refresh_tokens
+(
+    token_hash varchar(64) primary key,
+    user_id    bigint      not null references users (id) on delete cascade,
+    family_id  varchar(36) not null,
+    created_at timestamp   not null,
+    expires_at timestamp   not null,
+    used_at    timestamp
+);
+
+create index idx_refresh_tokens_family_id on refresh_tokens (family_id);
+create index idx_refresh_tokens_user_id on refresh_tokens (user_id);
+create index idx_refresh_tokens_expires_at on refresh_tokens (expires_at);
+
+alter table refresh_tokens owner to root;
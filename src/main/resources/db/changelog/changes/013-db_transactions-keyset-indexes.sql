@@ -0,0 +1,7 @@
+-- Indexuri pentru paginarea istoricului după (timestamp DESC, id DESC), câte unul pentru fiecare parte a
+-- transferului. Ele acoperă și căutările simple după cont, deci indexurile vechi pe o singură coloană nu mai sunt necesare.
+create index if not exists idx_db_transactions_from_account_ts_id on db_transactions (from_account_id, timestamp desc, id desc);
+create index if not exists idx_db_transactions_to_account_ts_id on db_transactions (to_account_id, timestamp desc, id desc);
+
+drop index if exists idx_db_transactions_from_account_id;
+drop index if exists idx_db_transactions_to_account_id;
@@ -0,0 +1,110 @@
+--liquibase formatted sql
+
+--changeset banking:014-partition-db_transactions-by-month splitStatements:false
+-- db_transactions devine o tabelă partiționată pe luni după timestamp. Partițiile noi sunt create din timp
+-- de TransactionPartitionMaintenance (create_db_transactions_partition), iar lunile vechi sunt mutate
+-- în schema archive (archive_db_transactions_partitions), unde rămân interogabile prin archive.db_transactions.
+
+alter table db_transactions rename to db_transactions_legacy;
+alter index if exists db_transactions_pkey rename to db_transactions_legacy_pkey;
+drop index if exists idx_db_transactions_from_account_ts_id;
+drop index if exists idx_db_transactions_to_account_ts_id;
+
+-- Cheia primară trebuie să includă cheia de partiționare; id-urile rămân unice prin secvență
+create table db_transactions
+(
+    id                    bigint         not null default nextval('db_transactions_id_seq'),
+    from_account_id       bigint,
+    to_account_id         bigint,
+    amount                numeric(15, 2) not null,
+    currency              varchar(3),
+    description           varchar(255),
+    timestamp             timestamp      not null default current_timestamp,
+    transaction_type      varchar(50),
+    rate_snapshot_version bigint,
+    constraint db_transactions_pkey primary key (id, timestamp),
+    constraint fk_db_transactions_from_account foreign key (from_account_id) references db_accounts (id) on delete set null,
+    constraint fk_db_transactions_to_account foreign key (to_account_id) references db_accounts (id) on delete set null
+) partition by range (timestamp);
+
+alter table db_transactions owner to root;
+alter sequence db_transactions_id_seq owned by db_transactions.id;
+
+-- Creează (dacă lipsește) partiția lunii care conține data primită, ex: db_transactions_p2025_06
+create or replace function create_db_transactions_partition(month_start date) returns void as
+$$
+declare
+    partition_start date := date_trunc('month', month_start)::date;
+    partition_name  text := format('db_transactions_p%s', to_char(partition_start, 'YYYY_MM'));
+begin
+    execute format('create table if not exists %I partition of db_transactions for values from (%L) to (%L)',
+                   partition_name, partition_start, (partition_start + interval '1 month')::date);
+end;
+$$ language plpgsql;
+
+do
+$$
+declare
+    month_start date;
+begin
+    for month_start in
+        select generate_series(date_trunc('month', coalesce(min(timestamp), current_timestamp)),
+                               date_trunc('month', current_timestamp) + interval '3 month',
+                               interval '1 month')::date
+        from db_transactions_legacy
+    loop
+        perform create_db_transactions_partition(month_start);
+    end loop;
+end;
+$$;
+
+insert into db_transactions (id, from_account_id, to_account_id, amount, currency, description, timestamp,
+                             transaction_type, rate_snapshot_version)
+select id, from_account_id, to_account_id, amount, currency, description, timestamp, transaction_type, rate_snapshot_version
+from db_transactions_legacy;
+
+drop table db_transactions_legacy;
+
+-- Indexurile pentru paginarea keyset (vezi 013), create pe fiecare partiție
+create index idx_db_transactions_from_account_ts_id on db_transactions (from_account_id, timestamp desc, id desc);
+create index idx_db_transactions_to_account_ts_id on db_transactions (to_account_id, timestamp desc, id desc);
+
+create schema if not exists archive;
+alter schema archive owner to root;
+
+create table archive.db_transactions
+(
+    like public.db_transactions including defaults
+) partition by range (timestamp);
+
+alter table archive.db_transactions owner to root;
+
+-- Detașează partițiile care se termină până la cutoff și le atașează la archive.db_transactions.
+-- Întoarce numărul de partiții arhivate.
+create or replace function archive_db_transactions_partitions(cutoff date) returns integer as
+$$
+declare
+    partition_name  text;
+    partition_start date;
+    archived        integer := 0;
+begin
+    for partition_name in
+        select c.relname
+        from pg_inherits i
+                 join pg_class c on c.oid = i.inhrelid
+        where i.inhparent = 'public.db_transactions'::regclass
+          and c.relname ~ '^db_transactions_p[0-9]{4}_[0-9]{2}$'
+        order by c.relname
+    loop
+        partition_start := to_date(substring(partition_name from 18), 'YYYY_MM');
+        if partition_start + interval '1 month' <= cutoff then
+            execute format('alter table public.db_transactions detach partition public.%I', partition_name);
+            execute format('alter table public.%I set schema archive', partition_name);
+            execute format('alter table archive.db_transactions attach partition archive.%I for values from (%L) to (%L)',
+                           partition_name, partition_start, (partition_start + interval '1 month')::date);
+            archived := archived + 1;
+        end if;
+    end loop;
+    return archived;
+end;
+$$ language plpgsql;
@@ -0,0 +1,3 @@
+-- Secvența din care AccountNumberGenerator rezervă blocuri de numere de cont: un apel nextval rezervă
+-- 1000 de valori pentru un nod, deci pasul trebuie să fie egal cu BLOCK_SIZE din generator.
+create sequence if not exists account_number_seq start with 1 increment by 1000;
@@ -0,0 +1,4 @@
+-- Versiunile seturilor de rate sunt alocate din secvență, ca mai multe instanțe să poată publica simultan
+-- fără să se ciocnească pe cheia primară (max + 1 citit separat pe fiecare nod nu este sigur).
+create sequence if not exists exchange_rate_snapshots_version_seq;
+select setval('exchange_rate_snapshots_version_seq', coalesce((select max(version) from exchange_rate_snapshots), 0) + 1, false);
@@ -0,0 +1,28 @@
+--liquibase formatted sql
+
+--changeset banking:017-db_transactions-default-partition splitStatements:false
+-- Partiție DEFAULT pentru db_transactions: dacă TransactionPartitionMaintenance nu a creat la timp partiția
+-- unei luni, inserările ajung aici în loc să eșueze. La crearea partiției lunii respective, rândurile din
+-- DEFAULT sunt mutate în ea (PostgreSQL nu permite atașarea unei partiții peste rânduri existente în DEFAULT).
+
+create table if not exists db_transactions_default partition of db_transactions default;
+alter table db_transactions_default owner to root;
+
+create or replace function create_db_transactions_partition(month_start date) returns void as
+$$
+declare
+    partition_start date := date_trunc('month', month_start)::date;
+    partition_end   date := (date_trunc('month', month_start) + interval '1 month')::date;
+    partition_name  text := format('db_transactions_p%s', to_char(partition_start, 'YYYY_MM'));
+begin
+    if to_regclass(format('public.%I', partition_name)) is not null then
+        return;
+    end if;
+
+    execute format('create table public.%I (like public.db_transactions including defaults)', partition_name);
+    execute format('with moved as (delete from public.db_transactions_default where timestamp >= %L and timestamp < %L returning *) ' ||
+                   'insert into public.%I select * from moved', partition_start, partition_end, partition_name);
+    execute format('alter table public.db_transactions attach partition public.%I for values from (%L) to (%L)',
+                   partition_name, partition_start, partition_end);
+end;
+$$ language plpgsql;
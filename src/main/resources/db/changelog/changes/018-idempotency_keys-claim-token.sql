@@ -0,0 +1,4 @@
+-- Cât timp o cheie este IN_PROGRESS, expires_at este sfârșitul rezervării (idempotency.lease), nu al păstrării
+-- răspunsului; o cerere ulterioară preia cheia după expirare. claim_token identifică cererea care deține
+-- rezervarea, ca o cerere a cărei rezervare a fost preluată să nu mai poată finaliza sau elibera cheia.
+alter table idempotency_keys add column claim_token varchar(36);
@@ -0,0 +1,62 @@
+package com.example.app;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Bază pentru testele care rulează pe PostgreSQL real (partiții, LATERAL, FOR UPDATE, planuri EXPLAIN).
+ * Containerul este pornit o singură dată și împărțit de toate clasele de test, ca și contextul Spring;
+ * fără Docker testele sunt sărite. Fiecare test își creează propriii utilizatori și conturi.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresIntegrationTest {
+
+    // Utilizatorul root: changeset-urile fac "alter ... owner to root"
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withUsername("root")
+            .withPassword("123")
+            .withUrlParam("reWriteBatchedInserts", "true")
+            .withInitScript("db/baseline-schema.sql");
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        POSTGRES.start(); // Nu face nimic dacă a fost deja pornit de altă clasă de test
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    protected String createUser() {
+        String username = "test_" + UUID.randomUUID().toString().substring(0, 18);
+        jdbcTemplate.update("INSERT INTO users (id, username, password, email) VALUES (nextval('user_id_seq'), ?, ?, ?)",
+                username, "{noop}parola", username + "@example.com");
+        return username;
+    }
+
+    protected Long userIdOf(String username) {
+        return jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, username);
+    }
+
+    protected Long createAccount(String username, BigDecimal balance, String currency) {
+        return jdbcTemplate.queryForObject("INSERT INTO db_accounts (account_number, user_id, account_type_id, balance, currency) " +
+                        "VALUES (?, ?, (SELECT id FROM account_types WHERE type_name = 'STANDARD_CHECKING'), ?, ?) RETURNING id",
+                Long.class, "TEST" + UUID.randomUUID().toString().replace("-", "").substring(0, 20).toUpperCase(),
+                userIdOf(username), balance, currency);
+    }
+
+    protected BigDecimal balanceOf(Long accountId) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM db_accounts WHERE id = ?", BigDecimal.class, accountId);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.app.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.app.model.AuthenticatedUser;
+import com.example.app.service.TokenRevocationService;
+import com.example.app.util.JwtServiceImpl;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Debitul JwtAuthenticationFilter cu log-ul filtrului oprit (OFF) și pornit (DEBUG), pentru un token valid
+ * (servit din cache-ul de claims) și pentru unul cu semnătură greșită, care scrie un avertisment la fiecare cerere.
+ * Forkul folosește logback-spring.xml, deci liniile trec prin AsyncAppender și LogSampler ca în producție.
+ * Rulare: {@code mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt}, apoi
+ * {@code java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.example.app.config.JwtAuthenticationFilterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-spring.xml")
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "470d677417ed8f552f69e14d363850291654e8484161fd171a37676e848f7ffb";
+    private static final String OTHER_SECRET = "0000000000000000000000000000000000000000000000000000000000000000";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @Param({ "OFF", "DEBUG" })
+    public String logLevel;
+
+    @Param({ "valid", "invalid" })
+    public String token;
+
+    private JwtAuthenticationFilter filter;
+    private String authorizationHeader;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(JwtAuthenticationFilter.class)).setLevel(Level.toLevel(logLevel));
+
+        JwtServiceImpl jwtService = jwtService(SECRET);
+        AuthenticatedUser user = new AuthenticatedUser(1L, "bench", List.of());
+        String jwt = "valid".equals(token) ? jwtService.generateToken(user) : jwtService(OTHER_SECRET).generateToken(user);
+        authorizationHeader = "Bearer " + jwt;
+
+        // Fără revocări și fără token-uri vechi, deci baza de date și cache-ul de utilizatori nu sunt folosite
+        filter = new JwtAuthenticationFilter((request, response, handler, exception) -> null, jwtService, null,
+                new TokenRevocationService(null, 900000));
+    }
+
+    @Benchmark
+    public MockHttpServletResponse doFilter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/accounts");
+        request.addHeader("Authorization", authorizationHeader);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, NO_OP_CHAIN);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response;
+    }
+
+    private static JwtServiceImpl jwtService(String secret) {
+        JwtServiceImpl jwtService = new JwtServiceImpl();
+        ReflectionTestUtils.setField(jwtService, "secretKey", secret);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 900000L);
+        ReflectionTestUtils.setField(jwtService, "claimsCacheMaxSize", 10000L);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+        return jwtService;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtAuthenticationFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
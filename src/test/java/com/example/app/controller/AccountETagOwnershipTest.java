@@ -0,0 +1,66 @@
+package com.example.app.controller;
+
+import com.example.app.PostgresIntegrationTest;
+import com.example.app.model.AuthenticatedUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Un ETag valid al utilizatorului nu trebuie să producă 304 pentru conturile altui utilizator:
+ * verificarea proprietarului are loc înaintea comparației cu If-None-Match.
+ */
+@AutoConfigureMockMvc
+class AccountETagOwnershipTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private AuthenticatedUser owner;
+    private String ownAccountNumber;
+    private String foreignAccountNumber;
+    private String etag;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String ownerName = createUser();
+        owner = new AuthenticatedUser(userIdOf(ownerName), ownerName, List.of());
+        ownAccountNumber = accountNumberOf(createAccount(ownerName, BigDecimal.TEN, "LEI"));
+        foreignAccountNumber = accountNumberOf(createAccount(createUser(), BigDecimal.TEN, "LEI"));
+        etag = mockMvc.perform(get("/api/v1/db-accounts").with(user(owner)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    @Test
+    void ownAccountIsNotModified() throws Exception {
+        mockMvc.perform(get("/api/v1/db-accounts/" + ownAccountNumber).with(user(owner)).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/transactions/" + ownAccountNumber).with(user(owner)).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void foreignAccountIsRejectedDespiteMatchingETag() throws Exception {
+        mockMvc.perform(get("/api/v1/db-accounts/" + foreignAccountNumber).with(user(owner)).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/v1/transactions/" + foreignAccountNumber).with(user(owner)).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/v1/db-accounts/NU-EXISTA").with(user(owner)).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotFound());
+    }
+
+    private String accountNumberOf(Long accountId) {
+        return jdbcTemplate.queryForObject("SELECT account_number FROM db_accounts WHERE id = ?", String.class, accountId);
+    }
+}
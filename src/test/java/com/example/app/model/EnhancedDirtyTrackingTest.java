@@ -0,0 +1,91 @@
+package com.example.app.model;
+
+import com.example.app.PostgresIntegrationTest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/**
+ * Entitățile de pe calea de scriere sunt îmbogățite la build (hibernate-enhance-maven-plugin): flush-ul află
+ * câmpurile modificate din entitate, fără a compara starea, și scrie în UPDATE doar acele coloane.
+ */
+class EnhancedDirtyTrackingTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void accountFlushWritesOnlyTheChangedBalance() {
+        Long accountId = createAccount(createUser(), new BigDecimal("100.00"), "LEI");
+
+        List<String> statements = flushAfter(session -> {
+            DbAccount account = session.get(DbAccount.class, accountId);
+            SelfDirtinessTracker tracker = assertInstanceOf(SelfDirtinessTracker.class, account);
+            account.setBalance(new BigDecimal("90.00"));
+            assertArrayEquals(new String[] { "balance" }, tracker.$$_hibernate_getDirtyAttributes());
+        });
+
+        assertEquals(List.of("update public.db_accounts set balance=? where id=?"), statements);
+        assertEquals(0, new BigDecimal("90.00").compareTo(balanceOf(accountId)));
+    }
+
+    @Test
+    void userFlushWritesOnlyTheChangedPassword() {
+        Long userId = userIdOf(createUser());
+
+        List<String> statements = flushAfter(session -> {
+            User user = session.get(User.class, userId);
+            assertInstanceOf(SelfDirtinessTracker.class, user);
+            user.setPassword("{noop}parola-noua");
+        });
+
+        assertEquals(List.of("update public.users set password=? where id=?"), statements);
+    }
+
+    @Test
+    void unchangedEntitiesAreNotUpdated() {
+        String username = createUser();
+        Long accountId = createAccount(username, new BigDecimal("100.00"), "LEI");
+
+        List<String> statements = flushAfter(session -> {
+            DbAccount account = session.get(DbAccount.class, accountId);
+            account.setBalance(new BigDecimal("100.00").add(BigDecimal.ZERO)); // Aceeași valoare
+            session.get(User.class, userIdOf(username));
+        });
+
+        assertEquals(List.of(), statements.stream().filter(sql -> sql.startsWith("update")).toList());
+    }
+
+    // Instrucțiunile SQL trimise de flush-ul de după modificările făcute în sesiune
+    private List<String> flushAfter(Consumer<Session> changes) {
+        List<String> statements = new ArrayList<>();
+        boolean[] flushing = new boolean[1];
+        try (Session session = entityManagerFactory.unwrap(SessionFactory.class).withOptions()
+                .statementInspector(sql -> {
+                    if (flushing[0]) {
+                        statements.add(sql);
+                    }
+                    return sql;
+                })
+                .openSession()) {
+            session.beginTransaction();
+            changes.accept(session);
+            flushing[0] = true;
+            session.flush();
+            session.getTransaction().commit();
+        }
+        return statements;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.app.repository;
+
+import com.example.app.PostgresIntegrationTest;
+import com.example.app.util.TransactionCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.jpa.repository.Query;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Planurile interogărilor de istoric pe un volum de date realist: fiecare ramură trebuie să parcurgă în ordine
+ * indexul (cont, timestamp DESC, id DESC) al partițiilor, fără Seq Scan pe db_transactions.
+ * Textul interogărilor este citit din adnotările @Query ale repository-ului, deci testul urmează orice modificare a lor.
+ */
+class TransactionHistoryPlanTest extends PostgresIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionHistoryPlanTest.class);
+
+    private static final Pattern NAMED_PARAMETER = Pattern.compile("(?<!:):(\\w+)");
+    private static final int ACCOUNTS = 200;
+    private static final int TRANSACTIONS = 40_000;
+    private static final int PAGE_SIZE = 51;
+
+    private List<Long> accountIds;
+
+    @BeforeEach
+    void seedHistory() {
+        String username = createUser();
+        accountIds = new ArrayList<>(ACCOUNTS);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountIds.add(createAccount(username, BigDecimal.ZERO, "LEI"));
+        }
+        // Rânduri pe ultimele 90 de zile: luna curentă în partiția ei, lunile anterioare în partiția DEFAULT
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(TRANSACTIONS);
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            Long from = random.nextInt(10) == 0 ? null : accountIds.get(random.nextInt(ACCOUNTS));
+            Long to = accountIds.get(random.nextInt(ACCOUNTS));
+            rows.add(new Object[] { from, to, Timestamp.valueOf(now.minusMinutes(random.nextInt(90 * 24 * 60))) });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO db_transactions " +
+                "(from_account_id, to_account_id, amount, currency, description, timestamp, transaction_type) " +
+                "VALUES (?, ?, 1, 'LEI', 'Plan', ?, 'TRANSFER')", rows);
+        jdbcTemplate.execute("ANALYZE db_accounts");
+        jdbcTemplate.execute("ANALYZE db_transactions");
+    }
+
+    @Test
+    void singleAccountPageWalksTheKeysetIndexes() throws Exception {
+        String sql = queryOf("findPageByAccountId", Long.class, LocalDateTime.class, Long.class, int.class);
+        Map<String, Object> parameters = Map.of("accountId", accountIds.get(0), "limit", PAGE_SIZE);
+
+        assertKeysetPlan(explain(sql, parameters, TransactionCursor.FIRST_PAGE));
+        assertKeysetPlan(explain(sql, parameters, middleOfHistory()));
+    }
+
+    @Test
+    void allAccountsPageWalksTheKeysetIndexesPerAccount() throws Exception {
+        String sql = queryOf("findPageByAccountIds", Collection.class, LocalDateTime.class, Long.class, int.class);
+        Map<String, Object> parameters = Map.of("accountIds", accountIds.subList(0, 5), "limit", PAGE_SIZE);
+
+        assertKeysetPlan(explain(sql, parameters, TransactionCursor.FIRST_PAGE));
+        assertKeysetPlan(explain(sql, parameters, middleOfHistory()));
+    }
+
+    private TransactionCursor middleOfHistory() {
+        return new TransactionCursor(LocalDateTime.now().minusDays(45), Long.MAX_VALUE);
+    }
+
+    private String queryOf(String method, Class<?>... parameterTypes) throws NoSuchMethodException {
+        return DbTransactionRepository.class.getMethod(method, parameterTypes).getAnnotation(Query.class).value();
+    }
+
+    // Parametrii cu nume devin parametri JDBC (planul este calculat pentru valorile lor); colecțiile devin literali
+    private List<String> explain(String sql, Map<String, Object> parameters, TransactionCursor cursor) {
+        List<Object> arguments = new ArrayList<>();
+        Matcher matcher = NAMED_PARAMETER.matcher(sql);
+        StringBuilder jdbcSql = new StringBuilder("EXPLAIN ");
+        while (matcher.find()) {
+            Object value = switch (matcher.group(1)) {
+                case "timestamp" -> Timestamp.valueOf(cursor.timestamp());
+                case "id" -> cursor.id();
+                default -> parameters.get(matcher.group(1));
+            };
+            if (value instanceof Collection<?> values) {
+                matcher.appendReplacement(jdbcSql, values.stream().map(String::valueOf).collect(Collectors.joining(", ")));
+            } else {
+                matcher.appendReplacement(jdbcSql, "?");
+                arguments.add(value);
+            }
+        }
+        matcher.appendTail(jdbcSql);
+        List<String> plan = jdbcTemplate.queryForList(jdbcSql.toString(), String.class, arguments.toArray());
+        log.info("Planul pentru cursorul {}:\n{}", cursor, String.join("\n", plan));
+        return plan;
+    }
+
+    private void assertKeysetPlan(List<String> plan) {
+        assertFalse(plan.stream().anyMatch(line -> line.contains("Seq Scan on db_transactions")),
+                "Seq Scan pe db_transactions");
+        assertFalse(plan.stream().anyMatch(line -> line.contains("Bitmap Heap Scan on db_transactions")),
+                "Scanare care nu păstrează ordinea indexului");
+        assertTrue(plan.stream().anyMatch(line -> line.contains("Index Scan") && line.contains("from_account")),
+                "Indexul pe from_account_id nu este folosit");
+        assertTrue(plan.stream().anyMatch(line -> line.contains("Index Scan") && line.contains("to_account")),
+                "Indexul pe to_account_id nu este folosit");
+    }
+}
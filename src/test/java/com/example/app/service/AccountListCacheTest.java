@@ -0,0 +1,90 @@
+package com.example.app.service;
+
+import com.example.app.dto.DbAccountResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccountListCacheTest {
+
+    private static final Long USER_ID = 7L;
+    private static final String USERNAME = "ana";
+
+    private final AccountListCache cache = new AccountListCache(new SimpleMeterRegistry(), 30000, 100);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void servesCachedListUntilInvalidated() {
+        Function<String, AccountListCache.AccountList> loader = username -> load("100.00");
+
+        cache.get(USERNAME, loader);
+        cache.get(USERNAME, loader);
+        assertEquals(1, loads.get());
+
+        cache.onAccountsChanged(new AccountsChangedEvent(Set.of(USER_ID)));
+        cache.get(USERNAME, loader);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidationDuringFirstLoadIsNotLost() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        // Prima încărcare citește soldul vechi, apoi un transfer face commit înainte ca ea să se termine
+        CompletableFuture<List<DbAccountResponseDTO>> firstLoad = CompletableFuture.supplyAsync(() ->
+                cache.get(USERNAME, username -> {
+                    AccountListCache.AccountList stale = load("100.00");
+                    loading.countDown();
+                    await(invalidated);
+                    return stale;
+                }));
+        assertTrue(loading.await(10, TimeUnit.SECONDS));
+        cache.onAccountsChanged(new AccountsChangedEvent(Set.of(USER_ID)));
+        invalidated.countDown();
+
+        assertEquals(new BigDecimal("100.00"), firstLoad.get(10, TimeUnit.SECONDS).get(0).getBalance());
+        List<DbAccountResponseDTO> next = cache.get(USERNAME, username -> load("50.00"));
+        assertEquals(new BigDecimal("50.00"), next.get(0).getBalance());
+        assertEquals(2, loads.get());
+
+        cache.get(USERNAME, username -> load("0.00")); // Încărcarea de după invalidare rămâne în cache
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidationBeforeLoadDoesNotBlockCaching() {
+        cache.onAccountsChanged(new AccountsChangedEvent(Set.of(USER_ID)));
+
+        cache.get(USERNAME, username -> load("100.00"));
+        cache.get(USERNAME, username -> load("100.00"));
+        assertEquals(1, loads.get());
+    }
+
+    private AccountListCache.AccountList load(String balance) {
+        loads.incrementAndGet();
+        DbAccountResponseDTO account = new DbAccountResponseDTO(1L, "RO00TEST", USERNAME, "STANDARD_CHECKING",
+                new BigDecimal(balance), "LEI", BigDecimal.ZERO, false, LocalDateTime.now());
+        return new AccountListCache.AccountList(USER_ID, List.of(account));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
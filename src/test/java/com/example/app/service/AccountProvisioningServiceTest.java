@@ -0,0 +1,74 @@
+package com.example.app.service;
+
+import com.example.app.PostgresIntegrationTest;
+import com.example.app.dto.CreateAccountRequestDTO;
+import com.example.app.dto.DbAccountResponseDTO;
+import com.example.app.dto.account.BulkAccountItemResultDTO;
+import com.example.app.dto.account.BulkAccountResponseDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AccountProvisioningServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private AccountProvisioningService accountProvisioningService;
+
+    @Test
+    void generatedIdsBelongToTheAccountWithTheSameNumber() {
+        String username = createUser();
+        StringBuilder csv = new StringBuilder("accountTypeName,initialDeposit,currency\n");
+        for (int i = 0; i < 120; i++) {
+            csv.append(i % 2 == 0 ? "STANDARD_CHECKING" : "PREMIUM_SAVINGS").append(',').append(i).append(".00,LEI\n");
+        }
+
+        BulkAccountResponseDTO response = accountProvisioningService.provisionAccountsFromCsv(username, csv.toString());
+
+        assertEquals(120, response.getSucceeded());
+        for (BulkAccountItemResultDTO result : response.getResults()) {
+            DbAccountResponseDTO account = result.getAccount();
+            Map<String, Object> row = jdbcTemplate.queryForMap(
+                    "SELECT account_number, balance FROM db_accounts WHERE id = ?", account.getId());
+            assertEquals(account.getAccountNumber(), row.get("account_number"));
+            assertEquals(0, account.getBalance().compareTo((BigDecimal) row.get("balance")));
+        }
+        // Depunerea inițială este legată de contul care a primit-o (contul cu depunere 0 nu are tranzacție)
+        assertEquals(119, jdbcTemplate.queryForObject("SELECT count(*) FROM db_transactions t " +
+                "JOIN db_accounts a ON a.id = t.to_account_id WHERE a.user_id = ? AND t.amount = a.balance", Integer.class, userIdOf(username)));
+    }
+
+    @Test
+    void invalidRowsAreReportedInRomanian() {
+        String username = createUser();
+        String csv = ",10.00\n" +
+                "NECUNOSCUT,10.00\n" +
+                "STANDARD_CHECKING,-5.00\n" +
+                "STANDARD_CHECKING,abc\n" +
+                "STANDARD_CHECKING,10.00,EURO\n" +
+                "STANDARD_CHECKING,10.00\n";
+
+        BulkAccountResponseDTO response = accountProvisioningService.provisionAccountsFromCsv(username, csv);
+
+        assertEquals(List.of(
+                "Numele tipului de cont este obligatoriu.",
+                "Tipul de cont negăsit: NECUNOSCUT",
+                "Depunerea inițială trebuie să fie zero sau pozitivă.",
+                "Depunerea inițială nu este un număr: abc",
+                "Moneda trebuie să fie un cod din 3 litere: EURO",
+                "Cont creat cu succes."
+        ), response.getResults().stream().map(BulkAccountItemResultDTO::getMessage).toList());
+        assertNull(response.getResults().get(0).getAccount());
+        assertEquals(1, response.getSucceeded());
+
+        CreateAccountRequestDTO withoutDeposit = new CreateAccountRequestDTO();
+        withoutDeposit.setAccountTypeName("STANDARD_CHECKING");
+        assertEquals("Depunerea inițială este obligatorie.", accountProvisioningService
+                .provisionAccounts(username, List.of(withoutDeposit)).getResults().get(0).getMessage());
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.app.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversia înainte (LegacyExchangeRates) și după ExchangeRateSnapshot, pe aceleași perechi de monede.
+ * Rulare: {@code mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt}, apoi
+ * {@code java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.example.app.service.ExchangeRateConvertBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExchangeRateConvertBenchmark {
+
+    @Param({ "USD:EUR", "EUR:LEI", "lei:usd" })
+    public String pair;
+
+    private ExchangeRateService exchangeRateService;
+    private LegacyExchangeRates legacy;
+    private String from;
+    private String to;
+    private BigDecimal amount;
+
+    @Setup
+    public void setUp() {
+        exchangeRateService = new ExchangeRateService();
+        legacy = new LegacyExchangeRates(exchangeRateService.getDefaultRatesToLEI());
+        from = pair.substring(0, pair.indexOf(':'));
+        to = pair.substring(pair.indexOf(':') + 1);
+        amount = new BigDecimal("1234.56");
+    }
+
+    @Benchmark
+    public BigDecimal legacyConvert() {
+        return legacy.convert(amount, from, to);
+    }
+
+    @Benchmark
+    public BigDecimal snapshotConvert() {
+        return exchangeRateService.convert(amount, from, to);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ExchangeRateConvertBenchmark.class.getSimpleName()).build()).run();
+    }
+}
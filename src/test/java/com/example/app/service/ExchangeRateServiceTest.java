@@ -0,0 +1,72 @@
+package com.example.app.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExchangeRateServiceTest {
+
+    private static final List<String> CURRENCIES = List.of("LEI", "USD", "EUR");
+
+    private final ExchangeRateService exchangeRateService = new ExchangeRateService();
+    private final LegacyExchangeRates legacy = new LegacyExchangeRates(exchangeRateService.getDefaultRatesToLEI());
+
+    @Test
+    void convertMatchesLegacyPathForSeededCurrencies() {
+        for (BigDecimal amount : amounts()) {
+            for (String from : CURRENCIES) {
+                for (String to : CURRENCIES) {
+                    assertEquals(legacy.convert(amount, from, to), exchangeRateService.convert(amount, from, to),
+                            () -> amount + " " + from + " -> " + to);
+                }
+            }
+        }
+    }
+
+    @Test
+    void convertRoundsOnceHalfUp() {
+        // 100 * 17.50 / 19.00 = 92.1052...; 0.05 * 19.00 / 17.50 = 0.054285...
+        assertEquals(new BigDecimal("92.11"), exchangeRateService.convert(new BigDecimal("100"), "USD", "EUR"));
+        assertEquals(new BigDecimal("0.05"), exchangeRateService.convert(new BigDecimal("0.05"), "EUR", "USD"));
+        assertEquals(new BigDecimal("1750.00"), exchangeRateService.convert(new BigDecimal("100.00"), "usd", "lei"));
+    }
+
+    @Test
+    void convertReturnsAmountUnchangedForSameCurrency() {
+        BigDecimal amount = new BigDecimal("12.345");
+        assertEquals(amount, exchangeRateService.convert(amount, "EUR", "eur"));
+    }
+
+    @Test
+    void exchangeRateMatchesLegacyPathForSeededCurrencies() {
+        for (String from : CURRENCIES) {
+            for (String to : CURRENCIES) {
+                assertEquals(legacy.getExchangeRate(from, to), exchangeRateService.getExchangeRate(from, to), from + " -> " + to);
+            }
+        }
+    }
+
+    @Test
+    void unsupportedCurrencyIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> exchangeRateService.convert(BigDecimal.TEN, "GBP", "LEI"));
+        assertThrows(IllegalArgumentException.class, () -> exchangeRateService.convert(BigDecimal.TEN, "LEI", "GBP"));
+    }
+
+    // Sume fixe (inclusiv cazuri de rotunjire la jumătate) și sume aleatoare cu 0-4 zecimale
+    private static List<BigDecimal> amounts() {
+        List<BigDecimal> amounts = new ArrayList<>(List.of(
+                new BigDecimal("0.01"), new BigDecimal("0.05"), BigDecimal.ONE, new BigDecimal("92.10"),
+                new BigDecimal("100"), new BigDecimal("1234.56"), new BigDecimal("999999999.99"), new BigDecimal("0.125")));
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            amounts.add(BigDecimal.valueOf(random.nextLong(100_000_000L), random.nextInt(5)));
+        }
+        return amounts;
+    }
+}
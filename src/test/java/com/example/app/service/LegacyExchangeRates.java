@@ -0,0 +1,42 @@
+package com.example.app.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Conversia dinaintea ExchangeRateSnapshot (HashMap cu rate față de LEI, calcul la fiecare apel), fără
+ * afișarea în consolă. Referința pentru testele și benchmark-ul conversiei.
+ */
+final class LegacyExchangeRates {
+
+    private final Map<String, BigDecimal> ratesToLEI = new HashMap<>();
+
+    LegacyExchangeRates(Map<String, BigDecimal> ratesToLEI) {
+        this.ratesToLEI.putAll(ratesToLEI);
+    }
+
+    BigDecimal convert(BigDecimal amount, String fromCurrency, String toCurrency) {
+        String fromUpper = fromCurrency.toUpperCase();
+        String toUpper = toCurrency.toUpperCase();
+        if (fromUpper.equals(toUpper)) {
+            return amount;
+        }
+        BigDecimal rateFrom = ratesToLEI.get(fromUpper);
+        BigDecimal rateTo = ratesToLEI.get(toUpper);
+        if (rateFrom == null || rateTo == null) {
+            throw new IllegalArgumentException("Monedă nesuportată pentru conversie: " + fromCurrency + " -> " + toCurrency);
+        }
+        return amount.multiply(rateFrom).divide(rateTo, 2, RoundingMode.HALF_UP);
+    }
+
+    BigDecimal getExchangeRate(String fromCurrency, String toCurrency) {
+        String fromUpper = fromCurrency.toUpperCase();
+        String toUpper = toCurrency.toUpperCase();
+        if (fromUpper.equals(toUpper)) {
+            return BigDecimal.ONE;
+        }
+        return ratesToLEI.get(fromUpper).divide(ratesToLEI.get(toUpper), 4, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.app.service;
+
+import com.example.app.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionExportServiceTest extends PostgresIntegrationTest {
+
+    private static final String INSERT_SQL = "INSERT INTO db_transactions " +
+            "(from_account_id, to_account_id, amount, currency, description, timestamp, transaction_type) " +
+            "VALUES (?, ?, ?, 'LEI', ?, ?, ?)";
+    private static final String CSV_HEADER = "id,fromAccountNumber,toAccountNumber,amount,currency,description,timestamp,transactionType";
+
+    @Autowired
+    private TransactionExportService transactionExportService;
+
+    @Test
+    void exportsOnlyTransactionsOfTheCallersAccounts() throws Exception {
+        String owner = createUser();
+        String other = createUser();
+        Long ownerAccount = createAccount(owner, BigDecimal.ZERO, "LEI");
+        Long otherAccount = createAccount(other, BigDecimal.ZERO, "LEI");
+        Long unrelatedAccount = createAccount(other, BigDecimal.ZERO, "LEI");
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        jdbcTemplate.update(INSERT_SQL, null, ownerAccount, new BigDecimal("10.00"), "depunere", now, "DEPOSIT");
+        jdbcTemplate.update(INSERT_SQL, ownerAccount, otherAccount, new BigDecimal("2.00"), "trimis", now, "TRANSFER");
+        jdbcTemplate.update(INSERT_SQL, otherAccount, ownerAccount, new BigDecimal("3.00"), "primit", now, "TRANSFER");
+        jdbcTemplate.update(INSERT_SQL, otherAccount, unrelatedAccount, new BigDecimal("4.00"), "strain", now, "TRANSFER");
+
+        List<String> lines = export(owner, null, null);
+
+        assertEquals(4, lines.size()); // Antetul și cele trei tranzacții ale proprietarului
+        assertTrue(lines.stream().anyMatch(line -> line.contains(",EXTERNAL,") && line.contains("depunere")));
+        assertTrue(lines.stream().noneMatch(line -> line.contains("strain")));
+    }
+
+    @Test
+    void exportRespectsTheDateRangeAndUsersWithoutAccounts() throws Exception {
+        String owner = createUser();
+        Long ownerAccount = createAccount(owner, BigDecimal.ZERO, "LEI");
+        jdbcTemplate.update(INSERT_SQL, null, ownerAccount, BigDecimal.ONE, "azi", Timestamp.valueOf(LocalDateTime.now()), "DEPOSIT");
+        jdbcTemplate.update(INSERT_SQL, null, ownerAccount, BigDecimal.ONE, "luna trecuta",
+                Timestamp.valueOf(LocalDateTime.now().minusMonths(1)), "DEPOSIT");
+
+        List<String> lines = export(owner, LocalDate.now(), LocalDate.now());
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1).contains(",azi,"));
+
+        assertEquals(List.of(CSV_HEADER), export(createUser(), null, null)); // Utilizator fără conturi: doar antetul
+    }
+
+    private List<String> export(String username, LocalDate from, LocalDate to) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        transactionExportService.export(username, TransactionExportService.ExportFormat.CSV, from, to).writeTo(output);
+        return output.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+}
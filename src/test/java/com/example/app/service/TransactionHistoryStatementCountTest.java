@@ -0,0 +1,104 @@
+package com.example.app.service;
+
+import com.example.app.PostgresIntegrationTest;
+import com.example.app.dto.TransactionPageDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Fixează numărul de instrucțiuni SQL pe pagină de istoric (statisticile Hibernate numără și interogările native),
+ * ca o încărcare lazy sau o interogare per cont adăugată ulterior să fie observată imediat.
+ */
+class TransactionHistoryStatementCountTest extends PostgresIntegrationTest {
+
+    private static final String INSERT_SQL = "INSERT INTO db_transactions " +
+            "(from_account_id, to_account_id, amount, currency, description, timestamp, transaction_type) " +
+            "VALUES (?, ?, 1, 'LEI', 'Istoric', ?, 'TRANSFER')";
+    private static final int PAGE_SIZE = 10;
+
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void allAccountsHistoryUsesThreeStatementsPerPage() {
+        String username = createUser();
+        Long first = createAccount(username, BigDecimal.ZERO, "LEI");
+        Long second = createAccount(username, BigDecimal.ZERO, "LEI");
+        Long third = createAccount(username, BigDecimal.ZERO, "LEI");
+        Long foreign = createAccount(createUser(), BigDecimal.ZERO, "LEI");
+        LocalDateTime start = LocalDateTime.now().minusHours(1);
+        for (int i = 0; i < 12; i++) {
+            insert(first, second, start.plusMinutes(i));     // Între conturile proprii: un singur rând în istoric
+            insert(third, foreign, start.plusMinutes(i));
+            insert(foreign, second, start.plusMinutes(i));
+        }
+
+        Set<Long> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            statistics.clear();
+            TransactionPageDTO page = accountService.getDbTransactionsPageByUsername(username, cursor, PAGE_SIZE);
+            // Utilizatorul, ID-urile conturilor și pagina de tranzacții (cu numerele de cont din același SELECT)
+            assertEquals(3, statistics.getPrepareStatementCount());
+            page.getItems().forEach(transaction -> seen.add(transaction.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(36, seen.size());
+        assertEquals(4, pages);
+    }
+
+    @Test
+    void singleAccountHistoryUsesThreeStatementsPerPage() {
+        String username = createUser();
+        Long account = createAccount(username, BigDecimal.ZERO, "LEI");
+        Long other = createAccount(createUser(), BigDecimal.ZERO, "LEI");
+        String accountNumber = jdbcTemplate.queryForObject("SELECT account_number FROM db_accounts WHERE id = ?", String.class, account);
+        LocalDateTime start = LocalDateTime.now().minusHours(1);
+        for (int i = 0; i < 15; i++) {
+            insert(i % 2 == 0 ? account : other, i % 2 == 0 ? other : account, start.plusMinutes(i));
+        }
+
+        statistics.clear();
+        TransactionPageDTO firstPage = accountService.getDbTransactionsPageByAccountNumberForUser(accountNumber, username, null, PAGE_SIZE);
+        // Proiecția contului, ID-ul utilizatorului și pagina de tranzacții
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(PAGE_SIZE, firstPage.getItems().size());
+
+        statistics.clear();
+        TransactionPageDTO lastPage = accountService.getDbTransactionsPageByAccountNumberForUser(
+                accountNumber, username, firstPage.getNextCursor(), PAGE_SIZE);
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(5, lastPage.getItems().size());
+        assertNull(lastPage.getNextCursor());
+    }
+
+    private void insert(Long from, Long to, LocalDateTime timestamp) {
+        jdbcTemplate.update(INSERT_SQL, from, to, Timestamp.valueOf(timestamp));
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.app.service;
+
+import com.example.app.PostgresIntegrationTest;
+import com.example.app.dto.transfer.BatchTransferItemDTO;
+import com.example.app.dto.transfer.BatchTransferRequestDTO;
+import com.example.app.dto.transfer.BatchTransferResponseDTO;
+import com.example.app.dto.transfer.OwnAccountTransferRequestDTO;
+import com.example.app.dto.transfer.TransferType;
+import com.example.app.model.DbAccount;
+import com.example.app.model.DbTransaction;
+import com.example.app.repository.DbAccountRepository;
+import com.example.app.repository.DbTransactionRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Scrierile în lot ale tranzacțiilor: instrucțiunile JDBC batch (rescrise de driver în INSERT-uri cu mai multe
+ * rânduri prin reWriteBatchedInserts) și insert-urile Hibernate cu ID-uri din secvențe pooled.
+ */
+class TransactionInsertBatchingTest extends PostgresIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionInsertBatchingTest.class);
+
+    private static final String INSERT_SQL = "INSERT INTO db_transactions " +
+            "(from_account_id, to_account_id, amount, currency, description, timestamp, transaction_type) " +
+            "VALUES (?, ?, ?, 'LEI', 'Test inserare', ?, 'DEPOSIT')";
+    private static final int WARM_UP_ROWS = 200;
+    private static final int MEASURED_ROWS = 2000;
+
+    @Autowired
+    private TransferService transferService;
+    @Autowired
+    private DbAccountRepository dbAccountRepository;
+    @Autowired
+    private DbTransactionRepository dbTransactionRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void batchTransferWritesEveryRow() {
+        String username = createUser();
+        Long first = createAccount(username, new BigDecimal("10000.00"), "LEI");
+        Long second = createAccount(username, BigDecimal.ZERO, "LEI");
+
+        List<BatchTransferItemDTO> items = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            items.add(ownAccountItem(first, second, new BigDecimal("2.00")));
+        }
+        items.add(ownAccountItem(first, -1L, new BigDecimal("2.00"))); // Cont inexistent: respins, fără rând scris
+        BatchTransferRequestDTO request = new BatchTransferRequestDTO();
+        request.setTransfers(items);
+
+        BatchTransferResponseDTO response = transferService.transferBatch(username, request);
+
+        assertEquals(500, response.getSucceeded());
+        assertEquals(1, response.getFailed());
+        assertEquals(500, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM db_transactions WHERE from_account_id = ? AND to_account_id = ?", Integer.class, first, second));
+        assertEquals(0, new BigDecimal("9000.00").compareTo(balanceOf(first)));
+        assertEquals(0, new BigDecimal("1000.00").compareTo(balanceOf(second)));
+    }
+
+    // Raportează inserările pe secundă pentru fiecare mod de scriere; fiecare mod scrie toate rândurile într-o tranzacție
+    @Test
+    void reportsInsertThroughput() {
+        String username = createUser();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        measure(username, transaction, "INSERT rând cu rând", (accountId, rows) -> {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            for (int i = 0; i < rows; i++) {
+                jdbcTemplate.update(INSERT_SQL, null, accountId, BigDecimal.ONE, now);
+            }
+        });
+        measure(username, transaction, "JdbcTemplate.batchUpdate", (accountId, rows) -> {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> batch = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                batch.add(new Object[] { null, accountId, BigDecimal.ONE, now });
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+        });
+        measure(username, transaction, "Hibernate, o instrucțiune pe rând (batch_size = 1)", (accountId, rows) -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(1);
+            saveTransactions(accountId, rows);
+        });
+        measure(username, transaction, "Hibernate, secvență pooled și jdbc.batch_size", this::saveTransactions);
+    }
+
+    private void saveTransactions(Long accountId, int rows) {
+        DbAccount account = dbAccountRepository.getReferenceById(accountId);
+        List<DbTransaction> entities = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            DbTransaction entity = new DbTransaction();
+            entity.setToAccount(account);
+            entity.setAmount(BigDecimal.ONE);
+            entity.setCurrency("LEI");
+            entity.setDescription("Test inserare");
+            entity.setTransactionType("DEPOSIT");
+            entities.add(entity);
+        }
+        dbTransactionRepository.saveAll(entities);
+    }
+
+    private void measure(String username, TransactionTemplate transaction, String label, BiConsumer<Long, Integer> writer) {
+        Long warmUpAccount = createAccount(username, BigDecimal.ZERO, "LEI");
+        transaction.executeWithoutResult(status -> writer.accept(warmUpAccount, WARM_UP_ROWS));
+
+        Long accountId = createAccount(username, BigDecimal.ZERO, "LEI");
+        long startedAt = System.nanoTime();
+        transaction.executeWithoutResult(status -> writer.accept(accountId, MEASURED_ROWS));
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+
+        log.info("{}: {} rânduri în {} ms, {} inserări/s", label, MEASURED_ROWS, elapsedMillis, MEASURED_ROWS * 1000L / elapsedMillis);
+        assertEquals(MEASURED_ROWS, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM db_transactions WHERE to_account_id = ?", Integer.class, accountId));
+    }
+
+    private BatchTransferItemDTO ownAccountItem(Long from, Long to, BigDecimal amount) {
+        OwnAccountTransferRequestDTO transfer = new OwnAccountTransferRequestDTO();
+        transfer.setFromAccountId(from);
+        transfer.setToAccountId(to);
+        transfer.setAmount(amount);
+        BatchTransferItemDTO item = new BatchTransferItemDTO();
+        item.setType(TransferType.OWN_ACCOUNT);
+        item.setOwnAccount(transfer);
+        return item;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.app.service;
+
+import com.example.app.PostgresIntegrationTest;
+import com.example.app.dto.transfer.OwnAccountTransferRequestDTO;
+import com.example.app.repository.DbAccountRepository;
+import com.example.app.repository.DbTransactionRepository;
+import com.example.app.repository.UserRepository;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Rulează fiecare mod de blocare cu mai multe fire care transferă simultan între aceleași două conturi,
+ * în ambele sensuri, și raportează transferurile confirmate, cele anulate și debitul obținut.
+ * Serviciul este construit fără proxy-ul @Retryable, deci fiecare anulare este o încercare pe care
+ * aplicația ar fi reluat-o.
+ */
+class TransferLockingContentionTest extends PostgresIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TransferLockingContentionTest.class);
+
+    private static final int THREADS = 8;
+    private static final int TRANSFERS_PER_THREAD = 50;
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("100000.00");
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    @Autowired
+    private DbAccountRepository dbAccountRepository;
+    @Autowired
+    private DbTransactionRepository dbTransactionRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ExchangeRateService exchangeRateService;
+    @Autowired
+    private FxQuoteService fxQuoteService;
+    @Autowired
+    private IdempotencyService idempotencyService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @ParameterizedTest
+    @EnumSource(TransferLockingMode.class)
+    void contendedTransfersKeepBalancesConsistent(TransferLockingMode mode) throws Exception {
+        TransferService transferService = new TransferService(dbAccountRepository, dbTransactionRepository, userRepository,
+                exchangeRateService, fxQuoteService, idempotencyService, jdbcTemplate, eventPublisher, transactionManager,
+                mode, 1000);
+        String username = createUser();
+        Long first = createAccount(username, INITIAL_BALANCE, "LEI");
+        Long second = createAccount(username, INITIAL_BALANCE, "LEI");
+
+        AtomicInteger committed = new AtomicInteger();
+        AtomicInteger committedFirstToSecond = new AtomicInteger();
+        AtomicInteger aborted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> workers = new ArrayList<>(THREADS);
+        for (int thread = 0; thread < THREADS; thread++) {
+            int offset = thread;
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    // Sensuri alternate: transferuri opuse pe aceeași pereche de conturi
+                    boolean firstToSecond = (offset + i) % 2 == 0;
+                    OwnAccountTransferRequestDTO request = new OwnAccountTransferRequestDTO();
+                    request.setFromAccountId(firstToSecond ? first : second);
+                    request.setToAccountId(firstToSecond ? second : first);
+                    request.setAmount(AMOUNT);
+                    try {
+                        transferService.transferBetweenOwnAccounts(username, request);
+                        committed.incrementAndGet();
+                        if (firstToSecond) {
+                            committedFirstToSecond.incrementAndGet();
+                        }
+                    } catch (DataAccessException | TransactionException e) {
+                        aborted.incrementAndGet(); // Conflict de serializare, deadlock sau timeout de blocare
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(2, TimeUnit.MINUTES);
+        }
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        executor.shutdown();
+
+        int attempts = THREADS * TRANSFERS_PER_THREAD;
+        log.info("{}: {} încercări, {} confirmate, {} anulate ({}%), {} ms, {} transferuri confirmate/s",
+                mode, attempts, committed.get(), aborted.get(), aborted.get() * 100 / attempts, elapsedMillis,
+                committed.get() * 1000L / elapsedMillis);
+
+        assertEquals(attempts, committed.get() + aborted.get());
+        BigDecimal netFromFirst = AMOUNT.multiply(BigDecimal.valueOf(2L * committedFirstToSecond.get() - committed.get()));
+        assertEquals(0, INITIAL_BALANCE.subtract(netFromFirst).compareTo(balanceOf(first)));
+        assertEquals(0, INITIAL_BALANCE.add(netFromFirst).compareTo(balanceOf(second)));
+        assertEquals(committed.get(), jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM db_transactions WHERE from_account_id IN (?, ?)", Integer.class, first, second));
+        if (mode != TransferLockingMode.SERIALIZABLE) {
+            // Conturile sunt blocate/actualizate mereu în ordinea ID-urilor, deci nu pot apărea deadlock-uri
+            assertEquals(0, aborted.get());
+        }
+    }
+}
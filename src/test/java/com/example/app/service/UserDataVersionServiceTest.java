@@ -0,0 +1,44 @@
+package com.example.app.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserDataVersionServiceTest {
+
+    private final UserDataVersionService service = new UserDataVersionService(30000, 100);
+
+    @Test
+    void etagIsStableUntilTheUsersDataChanges() {
+        String etag = service.etag(1L);
+
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+        assertEquals(etag, service.etag(1L));
+
+        service.onAccountsChanged(new AccountsChangedEvent(Set.of(1L)));
+        assertNotEquals(etag, service.etag(1L));
+    }
+
+    @Test
+    void changesOfOneUserDoNotTouchOtherUsers() {
+        String first = service.etag(1L);
+        String second = service.etag(2L);
+
+        service.onAccountsChanged(new AccountsChangedEvent(Set.of(1L)));
+
+        assertNotEquals(first, service.etag(1L));
+        assertEquals(second, service.etag(2L));
+    }
+
+    @Test
+    void recreatedVersionDoesNotRepeatAnEarlierEtag() {
+        String etag = service.etag(1L);
+
+        // O instanță nouă are același efect ca o intrare eliminată din cache sau un restart
+        assertNotEquals(etag, new UserDataVersionService(30000, 100).etag(1L));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.app.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogSamplerTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(1_000L);
+
+    @Test
+    void acceptsUpToLimitPerWindowAndCountsTheRest() {
+        LogSampler sampler = new LogSampler(3, clock::get);
+
+        assertTrue(sampler.sample());
+        assertTrue(sampler.sample());
+        assertTrue(sampler.sample());
+        for (int i = 0; i < 7; i++) {
+            assertFalse(sampler.sample());
+        }
+
+        assertEquals(7, sampler.drainSuppressed());
+        assertEquals(0, sampler.drainSuppressed());
+    }
+
+    @Test
+    void startsANewWindowAfterOneSecond() {
+        LogSampler sampler = new LogSampler(2, clock::get);
+        sampler.sample();
+        sampler.sample();
+        assertFalse(sampler.sample());
+
+        clock.addAndGet(SECOND - 1);
+        assertFalse(sampler.sample()); // Încă în aceeași fereastră
+
+        clock.addAndGet(1);
+        assertTrue(sampler.sample());
+        assertTrue(sampler.sample());
+        assertFalse(sampler.sample());
+        assertEquals(3, sampler.drainSuppressed()); // Liniile omise se adună peste ferestre până la următoarea raportare
+    }
+
+    @Test
+    void suppressedLinesAreReportedAfterAWindowWithoutWrites() {
+        LogSampler sampler = new LogSampler(1, clock::get);
+        sampler.sample();
+        sampler.sample();
+        sampler.sample();
+
+        clock.addAndGet(5 * SECOND);
+        assertTrue(sampler.sample());
+        assertEquals(2, sampler.drainSuppressed());
+    }
+
+    @Test
+    void concurrentCallersNeverExceedTheLimitWithinAWindow() throws Exception {
+        LogSampler sampler = new LogSampler(10, clock::get);
+        int threads = 8;
+        int callsPerThread = 10_000;
+        AtomicLong accepted = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int thread = 0; thread < threads; thread++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < callsPerThread; i++) {
+                    if (sampler.sample()) {
+                        accepted.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertEquals(10, accepted.get());
+        assertEquals((long) threads * callsPerThread - 10, sampler.drainSuppressed());
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.app.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionCursorTest {
+
+    @Test
+    void encodeAndDecodeRoundTrip() {
+        TransactionCursor cursor = new TransactionCursor(LocalDateTime.of(2024, 3, 15, 10, 30, 45, 123_456_000), 987654321L);
+
+        String encoded = cursor.encode();
+
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"), "Cursorul trebuie să poată fi trimis nemodificat într-un URL");
+        assertEquals(cursor, TransactionCursor.decode(encoded));
+    }
+
+    @Test
+    void roundTripKeepsWholeSecondsAndLargeIds() {
+        TransactionCursor cursor = new TransactionCursor(LocalDateTime.of(2024, 1, 1, 0, 0), Long.MAX_VALUE - 1);
+
+        assertEquals(cursor, TransactionCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void missingCursorMeansFirstPage() {
+        assertSame(TransactionCursor.FIRST_PAGE, TransactionCursor.decode(null));
+        assertSame(TransactionCursor.FIRST_PAGE, TransactionCursor.decode(""));
+        assertSame(TransactionCursor.FIRST_PAGE, TransactionCursor.decode("   "));
+    }
+
+    @Test
+    void firstPageSortsAfterAnyRealTransaction() {
+        // Interogările cer (timestamp, id) < cursor, deci santinela trebuie să fie după orice rând real
+        assertTrue(TransactionCursor.FIRST_PAGE.timestamp().isAfter(LocalDateTime.now().plusYears(1000)));
+        assertEquals(Long.MAX_VALUE, TransactionCursor.FIRST_PAGE.id());
+        assertEquals(TransactionCursor.FIRST_PAGE, TransactionCursor.decode(TransactionCursor.FIRST_PAGE.encode()));
+    }
+
+    @Test
+    void rejectsCursorsNotIssuedByTheApi() {
+        assertInvalid("nu-este-base64!");
+        assertInvalid(encode("fara-separator"));
+        assertInvalid(encode("2024-01-01T00:00|nu-e-numar"));
+        assertInvalid(encode("nu-e-data|42"));
+    }
+
+    private static void assertInvalid(String cursor) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> TransactionCursor.decode(cursor));
+        assertEquals("Cursorul de paginare este invalid.", e.getMessage());
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,45 @@
+-- Tabelele create înaintea changelog-ului Liquibase (vezi 002, 006 și 007, păstrate comentate acolo).
+-- Scriptul rulează la pornirea containerului de test, înainte de migrări; users este creată abia de 001,
+-- deci db_accounts nu are aici cheia străină către users.
+create table account_types
+(
+    id              bigserial primary key,
+    type_name       varchar(50) unique not null,
+    overdraft_limit decimal(15, 2),
+    interest_rate   decimal(5, 4)
+);
+
+insert into account_types (type_name, overdraft_limit, interest_rate)
+values ('STANDARD_CHECKING', 1000, 0),
+       ('STANDARD_SAVINGS', 0, 0.02),
+       ('PREMIUM_CHECKING', 5000, 0),
+       ('PREMIUM_SAVINGS', 0, 0.05);
+
+create table db_accounts
+(
+    id                   bigserial primary key,
+    account_number       varchar(50) unique not null,
+    user_id              bigint             not null,
+    account_type_id      bigint             not null references account_types (id) on delete cascade,
+    balance              decimal(15, 2) default 0     not null,
+    currency             varchar(3)     default 'LEI' not null,
+    insurance_benefit    decimal(15, 2) default 0,
+    has_premium_benefits boolean        default false,
+    opened_date          timestamp      default current_timestamp
+);
+
+create table db_transactions
+(
+    id               bigserial primary key,
+    from_account_id  bigint references db_accounts (id) on delete set null,
+    to_account_id    bigint references db_accounts (id) on delete set null,
+    amount           decimal(15, 2) not null,
+    currency         varchar(3),
+    description      varchar(255),
+    timestamp        timestamp default current_timestamp not null,
+    transaction_type varchar(50)
+);
+
+create index idx_db_accounts_user_id on db_accounts (user_id);
+create index idx_db_transactions_from_account_id on db_transactions (from_account_id);
+create index idx_db_transactions_to_account_id on db_transactions (to_account_id);